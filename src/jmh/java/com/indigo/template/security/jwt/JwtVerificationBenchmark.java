@@ -0,0 +1,84 @@
+package com.indigo.template.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT Verification Benchmark
+ * Compares the per-request cost of the previous filter path (key and parser rebuilt on
+ * every call, token parsed three times) with the single-parse VerifiedToken path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-256";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "refreshExpiration", 604_800_000L);
+        jwtTokenUtil.init();
+        token = jwtTokenUtil.generateToken("apiuser", new HashMap<>());
+        userDetails = User.withUsername("apiuser").password("").authorities("ROLE_USER").build();
+    }
+
+    /**
+     * extractUsername followed by validateToken(token, userDetails), as the filter did before
+     */
+    @Benchmark
+    public boolean previousPath() {
+        String username = legacyClaims(token).getSubject();
+        String validatedUsername = legacyClaims(token).getSubject();
+        Date expiration = legacyClaims(token).getExpiration();
+        return username.equals(userDetails.getUsername())
+                && validatedUsername.equals(userDetails.getUsername())
+                && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean verifiedTokenPath() {
+        VerifiedToken verifiedToken = jwtTokenUtil.verifyToken(token);
+        return verifiedToken.getUsername().equals(userDetails.getUsername()) && !verifiedToken.isExpired();
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.indigo.template.security.session;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session Serializer Benchmark
+ * Serialize and deserialize time of one logged-in session (metadata plus SecurityContext)
+ * with JDK serialization and the compact format. Bytes per session are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionSerializerBenchmark {
+
+    @Param({"jdk", "compact"})
+    private String format;
+
+    private RedisSerializer<Object> serializer;
+    private List<Object> values;
+    private List<byte[]> serialized;
+
+    @Setup
+    public void setUp() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        serializer = "jdk".equals(format)
+                ? new JdkSerializationRedisSerializer(classLoader)
+                : new CompactSessionSerializer(1024, classLoader);
+        Map<String, Object> sessionValues = SessionFixtures.loginSessionValues();
+        values = new ArrayList<>(sessionValues.values());
+        serialized = new ArrayList<>(values.size());
+        int bytes = 0;
+        for (Object value : values) {
+            byte[] data = serializer.serialize(value);
+            serialized.add(data);
+            bytes += data.length;
+        }
+        System.out.println(format + " bytes per session: " + bytes);
+    }
+
+    @Benchmark
+    public void serialize(Blackhole blackhole) {
+        for (Object value : values) {
+            blackhole.consume(serializer.serialize(value));
+        }
+    }
+
+    @Benchmark
+    public void deserialize(Blackhole blackhole) {
+        for (byte[] data : serialized) {
+            blackhole.consume(serializer.deserialize(data));
+        }
+    }
+
+}
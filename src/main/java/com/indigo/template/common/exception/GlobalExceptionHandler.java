@@ -35,6 +35,16 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(e.getCode(), e.getMessage());
     }
 
+    /**
+     * Handle TooManyRequestsException
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ApiResponse<?> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.warn("Too many requests: {}", e.getMessage());
+        return ApiResponse.error(e.getCode(), e.getMessage());
+    }
+
     /**
      * Handle validation exceptions (MethodArgumentNotValidException)
      */
@@ -0,0 +1,21 @@
+package com.indigo.template.common.exception;
+
+import com.indigo.template.common.response.ErrorCode;
+
+/**
+ * Too Many Requests Exception
+ * Thrown when a bounded resource is saturated, mapped to HTTP 429
+ */
+public class TooManyRequestsException extends BizException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException() {
+        super(ErrorCode.TOO_MANY_REQUESTS);
+    }
+
+    public TooManyRequestsException(String message) {
+        super(ErrorCode.TOO_MANY_REQUESTS, message);
+    }
+
+}
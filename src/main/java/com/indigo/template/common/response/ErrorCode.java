@@ -13,6 +13,7 @@ public enum ErrorCode {
     PARAMETER_ERROR(1001, "Parameter error"),
     VALIDATION_ERROR(1002, "Validation error"),
     RESOURCE_NOT_FOUND(1003, "Resource not found"),
+    TOO_MANY_REQUESTS(1004, "Too many requests"),
 
     // Authentication errors (2000-2999)
     UNAUTHORIZED(2001, "Unauthorized"),
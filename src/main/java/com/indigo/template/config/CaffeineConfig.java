@@ -1,11 +1,26 @@
 package com.indigo.template.config;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.indigo.template.security.jwt.CachedAuthentication;
+import com.indigo.template.service.ConfigCacheLoader;
+import com.indigo.template.service.ConfigEntry;
+import com.indigo.template.service.ConfigEntryExpiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Caffeine Cache Configuration
@@ -15,17 +30,124 @@ import java.util.concurrent.TimeUnit;
 public class CaffeineConfig {
 
     /**
-     * 创建配置缓存实例
+     * 创建配置缓存实例(异步加载缓存)
      * - 最大容量: 1000个条目
-     * - 写入后过期时间: 24小时
-     * - 访问后过期时间: 12小时
+     * - 写入后刷新时间: config.cache.refresh-after-write, 到期后首次读取立即返回当前值并在后台重新加载
+     * - 写入后过期时间: 每个条目单独计算, 优先使用配置表ttl_seconds, 否则为config.cache.ttl,
+     *   再加上±config.cache.ttl-jitter比例的随机抖动, 避免同一时刻加载的条目在所有节点上同时过期
+     * - 读取不影响过期时间; 常用的键在过期前已被后台刷新并重新计算过期时间
+     * - 未命中的加载在专用线程池中执行(config.cache.load-threads), 等待加载的请求数受限于同时未命中的键数
+     * - 后台刷新由ConfigCacheLoader提交到自己的有界线程池, 队列满时跳过, 不在请求线程中执行
+     *   线程池不注册为Bean, 避免影响Spring Boot默认的任务执行器
      */
     @Bean
-    public Cache<String, String> configCache() {
-        return Caffeine.newBuilder()
+    public AsyncLoadingCache<String, ConfigEntry> configCache(
+            ConfigCacheLoader configCacheLoader,
+            MeterRegistry meterRegistry,
+            @Value("${config.cache.refresh-after-write:1h}") Duration refreshAfterWrite,
+            @Value("${config.cache.ttl:24h}") Duration ttl,
+            @Value("${config.cache.ttl-jitter:0.1}") double ttlJitter,
+            @Value("${config.cache.load-threads:4}") int loadThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor loadExecutor = new ThreadPoolExecutor(loadThreads, loadThreads,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "config-load-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        loadExecutor.allowCoreThreadTimeOut(true);
+
+        AsyncLoadingCache<String, ConfigEntry> cache = Caffeine.newBuilder()
                 .maximumSize(1000)
-                .expireAfterWrite(24, TimeUnit.HOURS)
-                .expireAfterAccess(12, TimeUnit.HOURS)
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfter(new ConfigEntryExpiry(ttl, ttlJitter))
+                .executor(loadExecutor)
+                .recordStats()
+                .buildAsync(configCacheLoader);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "config");
+        return cache;
+    }
+
+    /**
+     * 创建配置不存在结果缓存实例(防止不存在的键反复查询数据库)
+     * - 最大容量: config.negative-cache.maximum-size
+     * - 写入后过期时间: config.negative-cache.ttl
+     */
+    @Bean
+    public Cache<String, Boolean> configNegativeCache(
+            @Value("${config.negative-cache.maximum-size:10000}") long maximumSize,
+            @Value("${config.negative-cache.ttl:30s}") Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 创建JWT认证缓存实例
+     * - 键: 原始token的SHA-256摘要
+     * - 最大容量: jwt.cache.maximum-size
+     * - 过期时间: min(jwt.cache.ttl, token自身的exp)
+     */
+    @Bean
+    public Cache<String, CachedAuthentication> jwtAuthenticationCache(
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+            @Value("${jwt.cache.ttl:5m}") Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                        Duration untilExpiration = Duration.between(Instant.now(), value.getExpiration());
+                        return Math.max(0, Math.min(ttl.toNanos(), untilExpiration.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedAuthentication value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedAuthentication value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 创建用户权限版本缓存实例
+     * - 最大容量: 10000个条目
+     * - 写入后过期时间: jwt.stateless-authorities.version-ttl
+     */
+    @Bean
+    public Cache<String, Integer> authorityVersionCache(
+            @Value("${jwt.stateless-authorities.version-ttl:30s}") Duration versionTtl) {
+        return Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(versionTtl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 创建用户详情缓存实例
+     * - 最大容量: security.user-cache.maximum-size
+     * - 写入后过期时间: security.user-cache.ttl
+     */
+    @Bean
+    public Cache<String, UserDetails> userDetailsCache(
+            @Value("${security.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.user-cache.ttl:5m}") Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
                 .recordStats()
                 .build();
     }
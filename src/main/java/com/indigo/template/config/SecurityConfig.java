@@ -3,29 +3,42 @@ package com.indigo.template.config;
 import com.indigo.template.security.filter.JwtAuthenticationFilter;
 import com.indigo.template.security.handler.CustomAccessDeniedHandler;
 import com.indigo.template.security.handler.CustomAuthenticationEntryPoint;
+import com.indigo.template.security.jwt.JwtAuthenticationCache;
 import com.indigo.template.security.jwt.JwtTokenUtil;
+import com.indigo.template.security.password.BoundedPasswordEncoder;
+import com.indigo.template.security.password.CalibratedBCryptPasswordEncoder;
+import com.indigo.template.security.password.PasswordHashExecutor;
+import com.indigo.template.security.password.RehashingAuthenticationProvider;
+import com.indigo.template.service.AuthorityVersionService;
+import com.indigo.template.service.CachedUserDetailsService;
 import com.indigo.template.service.UserService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import java.time.Duration;
 
 /**
  * Security Configuration
- * - /api/** uses JWT authentication (stateless)
- * - /admin/** uses Session authentication (stateful)
- * - Public endpoints: /health, /auth/**, /swagger-ui/**, /v3/api-docs/**, /actuator/**
+ * - /api/** uses JWT authentication (stateless chain, never touches the session store)
+ * - /admin/** and /auth/session/** use Session authentication (stateful chain)
+ * - Public endpoints: /health, /auth/**, /swagger-ui/**, /v3/api-docs/**, /actuator/** except /actuator/metrics
  */
 @Configuration
 @EnableWebSecurity
@@ -36,7 +49,11 @@ public class SecurityConfig {
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
     private final CustomAccessDeniedHandler accessDeniedHandler;
     private final JwtTokenUtil jwtTokenUtil;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
     private final UserService userService;
+    private final CachedUserDetailsService cachedUserDetailsService;
+    private final AuthorityVersionService authorityVersionService;
+    private final PasswordHashExecutor passwordHashExecutor;
 
     @Value("${jwt.header}")
     private String jwtHeader;
@@ -44,13 +61,96 @@ public class SecurityConfig {
     @Value("${jwt.prefix}")
     private String jwtPrefix;
 
+    @Value("${security.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.password.bcrypt.target-latency:250ms}")
+    private Duration bcryptTargetLatency;
+
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${security.password.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    /**
+     * Stateless chain for /api/**
+     * Never looks up, creates or saves an HTTP session, so Spring Session never reaches Redis
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/api/**")
+                // CSRF is disabled for JWT-based API authentication
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (e.g. completing an SSE stream) and error dispatches carry
+                        // no token; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        .anyRequest().authenticated()
+                )
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(authenticationEntryPoint)
+                        .accessDeniedHandler(accessDeniedHandler)
+                )
+                // Security context lives in a request attribute only
+                .securityContext(context -> context
+                        .securityContextRepository(new RequestAttributeSecurityContextRepository())
+                )
+                // Saving the request for replay after login would create a session
+                .requestCache(cache -> cache
+                        .requestCache(new NullRequestCache())
+                )
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+
+        http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    /**
+     * Session-backed chain for /admin/** and session login/logout
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain sessionSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/admin/**", "/auth/session/**")
+                // For session-based routes, consider enabling CSRF in production
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/auth/session/**").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(authenticationEntryPoint)
+                        .accessDeniedHandler(accessDeniedHandler)
+                )
+                .securityContext(context -> context
+                        .requireExplicitSave(false)
+                )
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
+                );
+
+        return http.build();
+    }
+
+    /**
+     * Default chain for public endpoints, JWT login/refresh and /auth/me,
+     * which accepts either a JWT or an existing session
+     */
     @Bean
+    @Order(3)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
-                // CSRF is disabled for JWT-based API authentication (/api/**)
-                // For session-based routes (/admin/**), consider enabling CSRF in production
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Metrics expose user counts, cache hit rates and request rates
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                         // Public endpoints
                         .requestMatchers(
                                 "/health",
@@ -62,10 +162,6 @@ public class SecurityConfig {
                                 "/webjars/**",
                                 "/actuator/**"
                         ).permitAll()
-                        // JWT protected endpoints (stateless)
-                        .requestMatchers("/api/**").authenticated()
-                        // Session protected endpoints (stateful)
-                        .requestMatchers("/admin/**").authenticated()
                         // All other requests need authentication
                         .anyRequest().authenticated()
                 )
@@ -73,16 +169,13 @@ public class SecurityConfig {
                         .authenticationEntryPoint(authenticationEntryPoint)
                         .accessDeniedHandler(accessDeniedHandler)
                 )
-                // Configure session management
                 .securityContext(context -> context
                         .requireExplicitSave(false)
                 )
                 .sessionManagement(session -> session
-                        // Use stateless for /api/**, stateful for /admin/**
                         .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
                 );
 
-        // Add JWT filter before UsernamePasswordAuthenticationFilter
         http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -93,12 +186,50 @@ public class SecurityConfig {
      */
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenUtil, userService, jwtHeader, jwtPrefix);
+        return new JwtAuthenticationFilter(jwtTokenUtil, cachedUserDetailsService, authorityVersionService,
+                jwtAuthenticationCache, jwtHeader, jwtPrefix);
+    }
+
+    /**
+     * Keep the JWT filter inside the security chains only,
+     * otherwise Spring Boot also registers it as a servlet filter for every request
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(
+            JwtAuthenticationFilter jwtAuthenticationFilter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(jwtAuthenticationFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * Password encoder, hashing runs on the bounded password hash executor
+     * so login bursts cannot pin request threads with BCrypt work.
+     * The BCrypt work factor is fixed fleet-wide by default; strength 0 opts into calibrating it on this host.
+     */
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder() {
+        CalibratedBCryptPasswordEncoder bcryptEncoder = bcryptStrength > 0
+                ? new CalibratedBCryptPasswordEncoder(bcryptStrength)
+                : CalibratedBCryptPasswordEncoder.calibrate(bcryptTargetLatency, bcryptMinStrength, bcryptMaxStrength);
+        return new BoundedPasswordEncoder(bcryptEncoder, passwordHashExecutor);
     }
 
+    /**
+     * Login authentication provider
+     * Declared explicitly because both UserService and CachedUserDetailsService are
+     * UserDetailsService beans; login always reads the stored password hash uncached.
+     * Hashes with a cost other than the current one are re-encoded in the background.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider() {
+        BoundedPasswordEncoder passwordEncoder = passwordEncoder();
+        DaoAuthenticationProvider provider = new RehashingAuthenticationProvider(
+                passwordEncoder.getDelegate(), passwordHashExecutor, userService);
+        provider.setUserDetailsService(userService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
     }
 
     @Bean
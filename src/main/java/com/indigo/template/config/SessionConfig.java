@@ -0,0 +1,91 @@
+package com.indigo.template.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.indigo.template.security.session.CompactSessionSerializer;
+import com.indigo.template.security.session.NearCacheSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.data.redis.RedisSessionRepository;
+
+import java.time.Duration;
+
+/**
+ * Session Configuration
+ * Spring Session序列化与本地近端缓存配置
+ */
+@Configuration
+public class SessionConfig {
+
+    /**
+     * 会话属性序列化器, Spring Session按名称springSessionDefaultRedisSerializer使用
+     * - 紧凑二进制格式, 超过compression-threshold字节时gzip压缩
+     * - 兼容读取JDK序列化格式写入的旧会话
+     */
+    @Bean("springSessionDefaultRedisSerializer")
+    @ConditionalOnProperty(prefix = "security.session.serializer", name = "format",
+            havingValue = "compact", matchIfMissing = true)
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer(
+            @Value("${security.session.serializer.compression-threshold:1024}") int compressionThreshold) {
+        return new CompactSessionSerializer(compressionThreshold, getClass().getClassLoader());
+    }
+
+    /**
+     * 创建会话近端缓存实例
+     * - 最大容量: security.session.near-cache.maximum-size
+     * - 写入后过期时间: security.session.near-cache.max-staleness (本地副本最长陈旧时间)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "security.session.near-cache", name = "enabled", havingValue = "true")
+    public Cache<String, NearCacheSessionRepository.CachedSession> sessionNearCache(
+            @Value("${security.session.near-cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.session.near-cache.max-staleness:10s}") Duration maxStaleness,
+            MeterRegistry meterRegistry) {
+        Cache<String, NearCacheSessionRepository.CachedSession> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStaleness)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sessionNearCache");
+        return cache;
+    }
+
+    /**
+     * 近端缓存会话仓库, 作为主仓库供SessionRepositoryFilter使用
+     * 写操作透传到Redis会话仓库, 并通过Redis发布/订阅通知其他节点失效本地副本
+     * 本地副本保存序列化后的属性值, 每个请求反序列化出自己的对象
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "security.session.near-cache", name = "enabled", havingValue = "true")
+    public NearCacheSessionRepository<?> nearCacheSessionRepository(
+            RedisSessionRepository redisSessionRepository,
+            Cache<String, NearCacheSessionRepository.CachedSession> sessionNearCache,
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            @Value("${spring.session.redis.namespace:spring:session}") String namespace,
+            @Value("${security.session.near-cache.touch-interval:1m}") Duration touchInterval,
+            @Qualifier("springSessionDefaultRedisSerializer") ObjectProvider<RedisSerializer<Object>> sessionSerializer) {
+        String channel = namespace + ":near-cache:invalidations";
+        // 本地副本与Redis使用同一个序列化器, 未配置时与Spring Session一样使用JDK序列化
+        RedisSerializer<Object> attributeSerializer = sessionSerializer.getIfAvailable(
+                () -> new JdkSerializationRedisSerializer(getClass().getClassLoader()));
+        NearCacheSessionRepository<?> repository = new NearCacheSessionRepository<>(
+                redisSessionRepository, sessionNearCache, stringRedisTemplate, channel, touchInterval,
+                attributeSerializer);
+        redisMessageListenerContainer.addMessageListener(repository, new ChannelTopic(channel));
+        return repository;
+    }
+}
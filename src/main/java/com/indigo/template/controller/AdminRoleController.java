@@ -0,0 +1,38 @@
+package com.indigo.template.controller;
+
+import com.indigo.template.common.response.ApiResponse;
+import com.indigo.template.service.RoleCatalog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin Role Controller (Session Protected)
+ * Manages the in-memory role catalog
+ */
+@Tag(name = "Admin", description = "Session Protected Admin Endpoints")
+@RestController
+@RequestMapping("/admin/roles")
+@RequiredArgsConstructor
+public class AdminRoleController {
+
+    private final RoleCatalog roleCatalog;
+
+    @Operation(
+            summary = "Refresh Role Catalog",
+            description = "Reload active roles from the database into the role catalog",
+            security = @SecurityRequirement(name = "Session Authentication")
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/refresh")
+    public ApiResponse<Void> refresh() {
+        roleCatalog.refresh();
+        return ApiResponse.success();
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.indigo.template.controller;
+
+import com.indigo.template.common.response.ApiResponse;
+import com.indigo.template.dto.request.UserStatusUpdateRequest;
+import com.indigo.template.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin User Controller (Session Protected)
+ * Enables and disables users; the change is applied to caches on every node
+ */
+@Tag(name = "Admin", description = "Session Protected Admin Endpoints")
+@RestController
+@RequestMapping("/admin/users/{username}")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final UserService userService;
+
+    @Operation(
+            summary = "Update User Status",
+            description = "Enable or disable a user; disabling also revokes the user's sessions and issued tokens",
+            security = @SecurityRequirement(name = "Session Authentication")
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/status")
+    public ApiResponse<Void> updateStatus(@PathVariable String username,
+                                          @Valid @RequestBody UserStatusUpdateRequest request) {
+        userService.updateStatus(username, request.getStatus());
+        return ApiResponse.success();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.indigo.template.controller;
+
+import com.indigo.template.common.response.ApiResponse;
+import com.indigo.template.dto.response.UserSessionDto;
+import com.indigo.template.service.SessionIndexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Admin User Session Controller (Session Protected)
+ * Lists and revokes the sessions of a user through the per-user session index
+ */
+@Tag(name = "Admin", description = "Session Protected Admin Endpoints")
+@RestController
+@RequestMapping("/admin/users/{username}/sessions")
+@RequiredArgsConstructor
+public class AdminUserSessionController {
+
+    private final SessionIndexService sessionIndexService;
+
+    @Operation(
+            summary = "List User Sessions",
+            description = "List the live sessions of a user",
+            security = @SecurityRequirement(name = "Session Authentication")
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public ApiResponse<List<UserSessionDto>> listSessions(@PathVariable String username) {
+        return ApiResponse.success(sessionIndexService.listSessions(username));
+    }
+
+    @Operation(
+            summary = "Revoke User Sessions",
+            description = "Invalidate every session of a user",
+            security = @SecurityRequirement(name = "Session Authentication")
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping
+    public ApiResponse<Integer> revokeSessions(@PathVariable String username) {
+        return ApiResponse.success(sessionIndexService.revokeAll(username));
+    }
+
+}
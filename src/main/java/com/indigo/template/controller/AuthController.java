@@ -2,10 +2,11 @@ package com.indigo.template.controller;
 
 import com.indigo.template.common.response.ApiResponse;
 import com.indigo.template.dto.request.LoginRequest;
+import com.indigo.template.dto.request.RefreshTokenRequest;
 import com.indigo.template.dto.response.JwtResponse;
-import com.indigo.template.dto.response.UserInfoDto;
-import com.indigo.template.entity.User;
-import com.indigo.template.security.jwt.JwtTokenUtil;
+import com.indigo.template.security.userdetails.AuthenticatedUser;
+import com.indigo.template.service.JwtTokenService;
+import com.indigo.template.service.SessionIndexService;
 import com.indigo.template.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,7 +20,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.web.bind.annotation.*;
 
@@ -38,8 +38,9 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
-    private final JwtTokenUtil jwtTokenUtil;
+    private final JwtTokenService jwtTokenService;
     private final UserService userService;
+    private final SessionIndexService sessionIndexService;
 
     /**
      * JWT Login - Returns JWT token for /api/** endpoints
@@ -52,24 +53,20 @@ public class AuthController {
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
         );
 
-        // Generate JWT tokens
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String accessToken = jwtTokenUtil.generateToken(userDetails);
-        String refreshToken = jwtTokenUtil.generateRefreshToken(userDetails);
+        // Generate JWT tokens, user info is built from the authenticated principal without further queries
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        JwtResponse response = jwtTokenService.issueTokens(principal);
 
-        // Get user info
-        User user = userService.getUserByUsername(userDetails.getUsername());
-        UserInfoDto userInfo = userService.buildUserInfoDto(user);
-
-        // Build response
-        JwtResponse response = JwtResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .tokenType("Bearer")
-                .expiresIn(jwtTokenUtil.getExpirationTime())
-                .userInfo(userInfo)
-                .build();
+        return ApiResponse.success(response);
+    }
 
+    /**
+     * JWT Refresh - Exchanges a refresh token for new tokens without re-sending the password
+     */
+    @Operation(summary = "JWT Refresh", description = "Exchange refresh token for a new access token and a rotated refresh token")
+    @PostMapping("/jwt/refresh")
+    public ApiResponse<JwtResponse> jwtRefresh(@Valid @RequestBody RefreshTokenRequest request) {
+        JwtResponse response = jwtTokenService.refreshTokens(request.getRefreshToken());
         return ApiResponse.success(response);
     }
 
@@ -95,10 +92,14 @@ public class AuthController {
         // Create session
         HttpSession session = httpRequest.getSession(true);
         session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContext);
+        sessionIndexService.register(authentication.getName(), session.getId());
+
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
 
         Map<String, Object> data = new HashMap<>();
         data.put("username", authentication.getName());
         data.put("sessionId", session.getId());
+        data.put("userInfo", userService.buildUserInfoDto(principal));
         
         log.info("Session login successful for user: {}, sessionId: {}", authentication.getName(), session.getId());
         
@@ -113,6 +114,10 @@ public class AuthController {
     public ApiResponse<Void> sessionLogout(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
         if (session != null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null) {
+                sessionIndexService.unregister(authentication.getName(), session.getId());
+            }
             session.invalidate();
         }
         SecurityContextHolder.clearContext();
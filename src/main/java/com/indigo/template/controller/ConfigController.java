@@ -1,13 +1,26 @@
 package com.indigo.template.controller;
 
+import com.indigo.template.common.exception.BizException;
 import com.indigo.template.common.response.ApiResponse;
+import com.indigo.template.common.response.ErrorCode;
+import com.indigo.template.dto.request.ConfigBatchUpdateRequest;
+import com.indigo.template.entity.Config;
 import com.indigo.template.service.ConfigCacheService;
+import com.indigo.template.service.ConfigSnapshot;
+import com.indigo.template.service.ConfigStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,7 +33,10 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ConfigController {
 
+    private static final int MAX_BATCH_KEYS = 500;
+
     private final ConfigCacheService configCacheService;
+    private final ConfigStreamService configStreamService;
 
     @Operation(summary = "获取配置值", description = "根据配置键从缓存中获取配置值")
     @GetMapping("/{key}")
@@ -29,11 +45,39 @@ public class ConfigController {
         return ApiResponse.success(value);
     }
 
-    @Operation(summary = "获取所有配置", description = "获取缓存中的所有配置")
+    @Operation(summary = "批量获取配置值", description = "一次获取多个配置值, 只返回存在的键, 例如 ?keys=system.name,cache.enabled")
+    @GetMapping("/batch")
+    public ApiResponse<Map<String, String>> getConfigs(@RequestParam List<String> keys) {
+        if (keys.size() > MAX_BATCH_KEYS) {
+            throw new BizException(ErrorCode.PARAMETER_ERROR, "At most " + MAX_BATCH_KEYS + " keys per request");
+        }
+        return ApiResponse.success(configCacheService.getConfigValues(keys));
+    }
+
+    @Operation(summary = "按前缀获取配置", description = "获取键以指定前缀开头的配置, 按键排序, 例如 /prefix/system.")
+    @GetMapping("/prefix/{prefix}")
+    public ApiResponse<Map<String, String>> getConfigsByPrefix(@PathVariable String prefix) {
+        return ApiResponse.success(configCacheService.getConfigsByPrefix(prefix));
+    }
+
+    @Operation(summary = "获取所有配置", description = "获取缓存中的所有配置, 支持If-None-Match条件请求(未变更时返回304)")
     @GetMapping("/all")
-    public ApiResponse<Map<String, String>> getAllConfigs() {
-        Map<String, String> configs = configCacheService.getAllCachedConfigs();
-        return ApiResponse.success(configs);
+    public ResponseEntity<byte[]> getAllConfigs(WebRequest webRequest) {
+        ConfigSnapshot snapshot = configCacheService.getSnapshot();
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            // 304, 不做任何序列化
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getAllJson());
+    }
+
+    @Operation(summary = "订阅配置变更", description = "SSE流: 连接时发送snapshot事件, 之后发送delta事件; 重连时通过Last-Event-ID补发错过的变更")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamConfigs(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return configStreamService.subscribe(lastEventId);
     }
 
     @Operation(summary = "更新配置", description = "更新配置到缓存和数据库")
@@ -46,6 +90,20 @@ public class ConfigController {
         return ApiResponse.success();
     }
 
+    @Operation(summary = "批量更新配置", description = "在一个事务中保存多个配置, 然后一次性更新缓存")
+    @PutMapping("/batch")
+    public ApiResponse<Integer> updateConfigs(@Valid @RequestBody ConfigBatchUpdateRequest request) {
+        List<Config> configs = new ArrayList<>(request.getConfigs().size());
+        for (ConfigBatchUpdateRequest.Item item : request.getConfigs()) {
+            Config config = new Config();
+            config.setConfigKey(item.getKey());
+            config.setConfigValue(item.getValue());
+            config.setDescription(item.getDescription());
+            configs.add(config);
+        }
+        return ApiResponse.success(configCacheService.updateConfigs(configs));
+    }
+
     @Operation(summary = "删除配置", description = "从缓存和数据库删除配置")
     @DeleteMapping("/{key}")
     public ApiResponse<Void> deleteConfig(@PathVariable String key) {
@@ -72,7 +130,9 @@ public class ConfigController {
     public ApiResponse<Map<String, Object>> getCacheStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("cacheStats", configCacheService.getCacheStats());
-        stats.put("cachedConfigCount", configCacheService.getAllCachedConfigs().size());
+        ConfigSnapshot snapshot = configCacheService.getSnapshot();
+        stats.put("cachedConfigCount", snapshot.size());
+        stats.put("snapshotVersion", snapshot.getVersion());
         return ApiResponse.success(stats);
     }
 }
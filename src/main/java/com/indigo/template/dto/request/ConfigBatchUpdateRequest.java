@@ -0,0 +1,45 @@
+package com.indigo.template.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Config Batch Update Request DTO
+ */
+@Data
+@Schema(description = "Config Batch Update Request")
+public class ConfigBatchUpdateRequest {
+
+    @Valid
+    @NotEmpty(message = "Configs cannot be empty")
+    @Size(max = 1000, message = "At most 1000 configs per request")
+    @Schema(description = "Configs to save, a repeated key keeps its last value")
+    private List<Item> configs;
+
+    @Data
+    @Schema(description = "Config Item")
+    public static class Item {
+
+        @NotBlank(message = "Config key cannot be blank")
+        @Size(max = 100, message = "Config key is at most 100 characters")
+        @Schema(description = "Config key", example = "system.name")
+        private String key;
+
+        @NotNull(message = "Config value cannot be null")
+        @Size(max = 500, message = "Config value is at most 500 characters")
+        @Schema(description = "Config value", example = "Java Web Template")
+        private String value;
+
+        @Size(max = 200, message = "Description is at most 200 characters")
+        @Schema(description = "Description, keeps the current one when omitted", example = "系统名称")
+        private String description;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.indigo.template.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * Refresh Token Request DTO
+ */
+@Data
+@Schema(description = "Refresh Token Request")
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token cannot be blank")
+    @Schema(description = "Refresh Token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+    private String refreshToken;
+
+}
@@ -0,0 +1,22 @@
+package com.indigo.template.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * User Status Update Request DTO
+ */
+@Data
+@Schema(description = "User Status Update Request")
+public class UserStatusUpdateRequest {
+
+    @NotNull(message = "Status cannot be null")
+    @Min(value = 0, message = "Status must be 0 or 1")
+    @Max(value = 1, message = "Status must be 0 or 1")
+    @Schema(description = "Status (0:disabled, 1:active)", example = "0")
+    private Integer status;
+
+}
@@ -0,0 +1,26 @@
+package com.indigo.template.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * User Session DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "User Session")
+public class UserSessionDto {
+
+    @Schema(description = "Session ID", example = "5f0c6c2e-4a1b-4f7e-9d55-0e0f3b1c2a7d")
+    private String sessionId;
+
+    @Schema(description = "Login time", example = "2024-01-01T10:00:00")
+    private LocalDateTime loginTime;
+}
@@ -34,6 +34,11 @@ public class Config {
      */
     private String description;
 
+    /**
+     * 缓存过期时间(秒), 为空时使用默认值
+     */
+    private Integer ttlSeconds;
+
     /**
      * 创建时间
      */
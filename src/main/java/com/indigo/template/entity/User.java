@@ -54,6 +54,11 @@ public class User {
      */
     private Integer status;
 
+    /**
+     * 权限版本号(角色或状态变更时递增)
+     */
+    private Integer authorityVersion;
+
     /**
      * 创建时间
      */
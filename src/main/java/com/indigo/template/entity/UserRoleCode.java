@@ -0,0 +1,21 @@
+package com.indigo.template.entity;
+
+import lombok.Data;
+
+/**
+ * User Role Code
+ * 用户角色编码(user_role与role连接查询结果, 非表实体)
+ */
+@Data
+public class UserRoleCode {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 角色编码
+     */
+    private String roleCode;
+}
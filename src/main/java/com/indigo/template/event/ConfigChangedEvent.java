@@ -0,0 +1,35 @@
+package com.indigo.template.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Config Changed Event
+ * Published after the local config cache applied a change, either made on this node
+ * or received from another node (remote = true)
+ */
+@Getter
+@RequiredArgsConstructor
+public class ConfigChangedEvent {
+
+    public enum Type {
+        /**
+         * A single key was inserted or updated
+         */
+        UPDATED,
+        /**
+         * A single key was deleted
+         */
+        DELETED,
+        /**
+         * The whole config set was reloaded from the database
+         */
+        REFRESHED
+    }
+
+    private final Type type;
+    private final String key;
+    private final String value;
+    private final boolean remote;
+
+}
@@ -0,0 +1,19 @@
+package com.indigo.template.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * User Changed Event
+ * Published after a user's status or roles change, so caches holding
+ * the user's details or authentications can evict them. Changes made on another
+ * node are re-published locally with remote = true
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserChangedEvent {
+
+    private final String username;
+    private final boolean remote;
+
+}
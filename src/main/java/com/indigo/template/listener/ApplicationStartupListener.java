@@ -1,6 +1,7 @@
 package com.indigo.template.listener;
 
-import com.indigo.template.service.ConfigCacheService;
+import com.indigo.template.service.ConfigSyncService;
+import com.indigo.template.service.RoleCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -9,23 +10,31 @@ import org.springframework.stereotype.Component;
 
 /**
  * Application Startup Listener
- * 应用启动监听器 - 在应用完全启动后加载配置到缓存
+ * 应用启动监听器 - 在应用完全启动后加载配置到缓存, 并加载角色目录
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ApplicationStartupListener implements ApplicationListener<ApplicationReadyEvent> {
 
-    private final ConfigCacheService configCacheService;
+    private final ConfigSyncService configSyncService;
+    private final RoleCatalog roleCatalog;
 
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
         log.info("Application is ready. Loading configs to Caffeine cache...");
         try {
-            configCacheService.loadConfigsToCache();
+            configSyncService.initialize();
             log.info("Successfully loaded configs to Caffeine cache on startup");
         } catch (Exception e) {
             log.error("Failed to load configs to Caffeine cache on startup", e);
         }
+
+        try {
+            roleCatalog.refresh();
+        } catch (Exception e) {
+            // 角色目录会在首次认证时再次加载
+            log.error("Failed to load role catalog on startup", e);
+        }
     }
 }
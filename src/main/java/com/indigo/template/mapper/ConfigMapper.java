@@ -2,7 +2,13 @@ package com.indigo.template.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.indigo.template.entity.Config;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Config Mapper
@@ -10,4 +16,35 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface ConfigMapper extends BaseMapper<Config> {
+
+    /**
+     * 查询updated_at不早于指定时间的配置, 包括已逻辑删除的行(用于增量刷新)
+     */
+    @Select("SELECT id, config_key, config_value, description, ttl_seconds, created_at, updated_at, deleted " +
+            "FROM config WHERE updated_at >= #{since} ORDER BY updated_at")
+    List<Config> selectChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 按config_key插入或更新, 单条语句完成, 依赖uk_config_key唯一索引
+     * 已逻辑删除的行会被恢复; description为空时保留原值, ttl_seconds不变
+     * 使用行别名引用新值(MySQL 8.0.19+), 替代8.0.20起弃用的VALUES()
+     */
+    @Insert("INSERT INTO config (config_key, config_value, description) " +
+            "VALUES (#{configKey}, #{configValue}, #{description}) AS new " +
+            "ON DUPLICATE KEY UPDATE config_value = new.config_value, " +
+            "description = COALESCE(new.description, config.description), deleted = 0")
+    int upsert(Config config);
+
+    /**
+     * 多行批量upsert, 语义同upsert
+     */
+    @Insert("<script>" +
+            "INSERT INTO config (config_key, config_value, description) VALUES " +
+            "<foreach collection='configs' item='c' separator=','>" +
+            "(#{c.configKey}, #{c.configValue}, #{c.description})" +
+            "</foreach> AS new " +
+            "ON DUPLICATE KEY UPDATE config_value = new.config_value, " +
+            "description = COALESCE(new.description, config.description), deleted = 0" +
+            "</script>")
+    int upsertBatch(@Param("configs") List<Config> configs);
 }
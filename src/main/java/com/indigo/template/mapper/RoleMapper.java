@@ -2,11 +2,48 @@ package com.indigo.template.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.indigo.template.entity.Role;
+import com.indigo.template.entity.UserRoleCode;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Role Mapper
  */
 @Mapper
 public interface RoleMapper extends BaseMapper<Role> {
+
+    /**
+     * Select latest update time over all roles, including deleted ones (used as change marker)
+     */
+    @Select("SELECT MAX(updated_at) FROM role")
+    LocalDateTime selectMaxUpdatedAt();
+
+    /**
+     * Select active roles of a user in a single join (uses idx_user_id and role primary key)
+     */
+    @Select("SELECT r.* FROM user_role ur JOIN role r ON r.id = ur.role_id " +
+            "WHERE ur.user_id = #{userId} AND r.status = 1 AND r.deleted = 0")
+    List<Role> selectActiveRolesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Select active role codes of a user in a single join
+     */
+    @Select("SELECT r.role_code FROM user_role ur JOIN role r ON r.id = ur.role_id " +
+            "WHERE ur.user_id = #{userId} AND r.status = 1 AND r.deleted = 0")
+    List<String> selectActiveRoleCodesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Select active role codes of many users in one round trip
+     */
+    @Select("<script>" +
+            "SELECT ur.user_id, r.role_code FROM user_role ur JOIN role r ON r.id = ur.role_id " +
+            "WHERE r.status = 1 AND r.deleted = 0 AND ur.user_id IN " +
+            "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>" +
+            "</script>")
+    List<UserRoleCode> selectActiveRoleCodesByUserIds(@Param("userIds") Collection<Long> userIds);
 }
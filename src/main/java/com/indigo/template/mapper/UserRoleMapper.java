@@ -3,10 +3,20 @@ package com.indigo.template.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.indigo.template.entity.UserRole;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * UserRole Mapper
  */
 @Mapper
 public interface UserRoleMapper extends BaseMapper<UserRole> {
+
+    /**
+     * Select role IDs of a user (covered by uk_user_role)
+     */
+    @Select("SELECT role_id FROM user_role WHERE user_id = #{userId}")
+    List<Long> selectRoleIdsByUserId(@Param("userId") Long userId);
 }
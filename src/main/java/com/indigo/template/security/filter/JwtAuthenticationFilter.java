@@ -1,14 +1,21 @@
 package com.indigo.template.security.filter;
 
+import com.indigo.template.security.jwt.CachedAuthentication;
+import com.indigo.template.security.jwt.JwtAuthenticationCache;
 import com.indigo.template.security.jwt.JwtTokenUtil;
+import com.indigo.template.security.jwt.VerifiedToken;
+import com.indigo.template.service.AuthorityVersionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +23,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * JWT Authentication Filter
@@ -26,8 +34,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final UserDetailsService userDetailsService;
+    private final AuthorityVersionService authorityVersionService;
+    private final JwtAuthenticationCache authenticationCache;
     private final String tokenHeader;
     private final String tokenPrefix;
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -37,22 +48,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt)) {
-                String username = jwtTokenUtil.extractUsername(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (jwtTokenUtil.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.debug("Set authentication for user: {}", username);
-                }
+                Authentication verified = resolveAuthentication(jwt);
+
+                // Cached authentication is shared, so request details go on a per-request copy
+                UsernamePasswordAuthenticationToken authentication =
+                        UsernamePasswordAuthenticationToken.authenticated(
+                                verified.getPrincipal(),
+                                null,
+                                verified.getAuthorities()
+                        );
+                authentication.setDetails(authenticationDetailsSource.buildDetails(request));
+
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                log.debug("Set authentication for user: {}", authentication.getName());
             }
         } catch (Exception e) {
             log.error("Could not set user authentication: {}", e.getMessage());
@@ -61,6 +69,58 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Resolve authentication from the cache, or verify the token and load the user on a miss
+     */
+    private Authentication resolveAuthentication(String jwt) {
+        CachedAuthentication cached = authenticationCache.get(jwt);
+        if (cached != null) {
+            return cached.getAuthentication();
+        }
+
+        // Signature, expiration and payload are checked in a single parse
+        VerifiedToken verifiedToken = jwtTokenUtil.verifyToken(jwt);
+        if (verifiedToken.isRefreshToken()) {
+            throw new BadCredentialsException("Refresh token cannot be used as access token");
+        }
+        UserDetails userDetails = loadUserDetails(verifiedToken);
+
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authenticationCache.put(jwt, verifiedToken, authentication);
+        return authentication;
+    }
+
+    /**
+     * Build user details from embedded role codes while the token's authority version is current,
+     * otherwise load the user from the database
+     */
+    private UserDetails loadUserDetails(VerifiedToken verifiedToken) {
+        String username = verifiedToken.getUsername();
+        if (jwtTokenUtil.isStatelessAuthorities()) {
+            List<String> roles = verifiedToken.getRoles();
+            Integer tokenVersion = verifiedToken.getAuthorityVersion();
+            if (roles != null && tokenVersion != null) {
+                Integer currentVersion = authorityVersionService.getAuthorityVersion(username);
+                if (currentVersion == null) {
+                    // Absence is cached by the version lookup, loading the user would only query again
+                    throw new BadCredentialsException("User does not exist or is disabled: " + username);
+                }
+                if (tokenVersion.equals(currentVersion)) {
+                    return User.withUsername(username)
+                            .password("")
+                            .authorities(roles.toArray(new String[0]))
+                            .build();
+                }
+            }
+            log.debug("Authority version of token is stale for user: {}, loading from database", username);
+        }
+        return userDetailsService.loadUserByUsername(username);
+    }
+
     /**
      * Extract JWT token from request header
      */
@@ -0,0 +1,28 @@
+package com.indigo.template.security.jwt;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+
+/**
+ * Cached JWT Authentication
+ * Verified token together with the Authentication built from it
+ */
+@Getter
+@RequiredArgsConstructor
+public final class CachedAuthentication {
+
+    private final VerifiedToken verifiedToken;
+
+    /**
+     * Authentication without request details, shared between requests
+     */
+    private final Authentication authentication;
+
+    public Instant getExpiration() {
+        return verifiedToken.getExpiration();
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.indigo.template.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.indigo.template.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * JWT Authentication Cache
+ * Lets repeated requests with the same bearer token skip signature verification,
+ * payload parsing and user loading. Entries are keyed by a SHA-256 digest so raw
+ * tokens are never held in memory as cache keys.
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationCache {
+
+    private final Cache<String, CachedAuthentication> jwtAuthenticationCache;
+    private final boolean enabled;
+
+    public JwtAuthenticationCache(Cache<String, CachedAuthentication> jwtAuthenticationCache,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.cache.enabled:true}") boolean enabled) {
+        this.jwtAuthenticationCache = jwtAuthenticationCache;
+        this.enabled = enabled;
+        CaffeineCacheMetrics.monitor(meterRegistry, jwtAuthenticationCache, "jwtAuthentication");
+    }
+
+    /**
+     * Get cached authentication for a raw token, or null on miss
+     */
+    public CachedAuthentication get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        CachedAuthentication cached = jwtAuthenticationCache.getIfPresent(digest(token));
+        if (cached != null && cached.getVerifiedToken().isExpired()) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Cache authentication for a raw token until the token expires or the TTL elapses
+     */
+    public void put(String token, VerifiedToken verifiedToken, Authentication authentication) {
+        if (!enabled) {
+            return;
+        }
+        jwtAuthenticationCache.put(digest(token), new CachedAuthentication(verifiedToken, authentication));
+    }
+
+    /**
+     * Evict every cached authentication of a user
+     */
+    public void evictUser(String username) {
+        jwtAuthenticationCache.asMap().values()
+                .removeIf(cached -> username.equals(cached.getVerifiedToken().getUsername()));
+        log.debug("Evicted cached JWT authentications for user: {}", username);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.getUsername());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
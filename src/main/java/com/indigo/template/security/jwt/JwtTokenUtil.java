@@ -1,10 +1,15 @@
 package com.indigo.template.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -14,6 +19,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * JWT Utility Class
@@ -22,6 +28,31 @@ import java.util.function.Function;
 @Component
 public class JwtTokenUtil {
 
+    /**
+     * Claim holding the token type
+     */
+    public static final String CLAIM_TYPE = "type";
+
+    /**
+     * Token type of refresh tokens
+     */
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
+    /**
+     * Claim holding the refresh token family, shared by all rotations of one login
+     */
+    public static final String CLAIM_FAMILY = "fid";
+
+    /**
+     * Claim holding role codes in stateless authorities mode
+     */
+    public static final String CLAIM_ROLES = "roles";
+
+    /**
+     * Claim holding the user's authority version in stateless authorities mode
+     */
+    public static final String CLAIM_AUTHORITY_VERSION = "av";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -31,11 +62,35 @@ public class JwtTokenUtil {
     @Value("${jwt.refresh-expiration:604800000}") // Default: 7 days
     private Long refreshExpiration;
 
+    @Value("${jwt.stateless-authorities.enabled:false}")
+    private boolean statelessAuthorities;
+
+    private SecretKey signKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * Build secret key and parser once, both are immutable and thread-safe
+     */
+    @PostConstruct
+    public void init() {
+        this.signKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signKey)
+                .build();
+    }
+
     /**
-     * Get secret key
+     * Verify signature and expiration, and parse the token exactly once
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
      */
-    private SecretKey getSignKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public VerifiedToken verifyToken(String token) {
+        Claims claims = extractAllClaims(token);
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        return new VerifiedToken(claims);
     }
 
     /**
@@ -64,35 +119,51 @@ public class JwtTokenUtil {
      * Extract all claims from token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * Check if token is expired
+     * Generate token for user
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateToken(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        return createToken(claims, userDetails.getUsername());
     }
 
     /**
-     * Generate token for user
+     * Generate token for user, embedding role codes and authority version
+     * when stateless authorities mode is enabled
      */
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(UserDetails userDetails, Integer authorityVersion) {
         Map<String, Object> claims = new HashMap<>();
+        if (statelessAuthorities && authorityVersion != null) {
+            claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList()));
+            claims.put(CLAIM_AUTHORITY_VERSION, authorityVersion);
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Whether access tokens carry role codes, letting the filter skip user loading
+     */
+    public boolean isStatelessAuthorities() {
+        return statelessAuthorities;
+    }
+
     /**
      * Generate refresh token for user
+     *
+     * @param familyId refresh token family, kept across rotations
+     * @param tokenId  unique ID of this refresh token (jti)
      */
-    public String generateRefreshToken(UserDetails userDetails) {
+    public String generateRefreshToken(String username, String familyId, String tokenId) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
-        return createRefreshToken(claims, userDetails.getUsername());
+        claims.put(CLAIM_TYPE, TOKEN_TYPE_REFRESH);
+        claims.put(CLAIM_FAMILY, familyId);
+        claims.put(Claims.ID, tokenId);
+        return createRefreshToken(claims, username);
     }
 
     /**
@@ -102,6 +173,13 @@ public class JwtTokenUtil {
         return expiration / 1000;
     }
 
+    /**
+     * Get refresh token expiration time in milliseconds
+     */
+    public Long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
     /**
      * Generate token with claims
      */
@@ -135,7 +213,7 @@ public class JwtTokenUtil {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
@@ -144,8 +222,8 @@ public class JwtTokenUtil {
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            VerifiedToken verifiedToken = verifyToken(token);
+            return verifiedToken.getUsername().equals(userDetails.getUsername()) && !verifiedToken.isExpired();
         } catch (Exception e) {
             log.error("Token validation error: {}", e.getMessage());
             return false;
@@ -157,8 +235,7 @@ public class JwtTokenUtil {
      */
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !verifyToken(token).isExpired();
         } catch (Exception e) {
             log.error("Token validation error: {}", e.getMessage());
             return false;
@@ -0,0 +1,78 @@
+package com.indigo.template.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Verified JWT Token
+ * Immutable result of a single signature check and payload parse
+ */
+@Getter
+public final class VerifiedToken {
+
+    private final String username;
+    private final Instant issuedAt;
+    private final Instant expiration;
+    private final Claims claims;
+
+    VerifiedToken(Claims claims) {
+        this.username = claims.getSubject();
+        this.issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        this.expiration = claims.getExpiration().toInstant();
+        this.claims = claims;
+    }
+
+    /**
+     * Get a single claim value
+     */
+    public <T> T getClaim(String name, Class<T> requiredType) {
+        return claims.get(name, requiredType);
+    }
+
+    /**
+     * Check if this is a refresh token
+     */
+    public boolean isRefreshToken() {
+        return JwtTokenUtil.TOKEN_TYPE_REFRESH.equals(claims.get(JwtTokenUtil.CLAIM_TYPE, String.class));
+    }
+
+    /**
+     * Get token ID (jti)
+     */
+    public String getTokenId() {
+        return claims.getId();
+    }
+
+    /**
+     * Get refresh token family ID, or null for access tokens
+     */
+    public String getFamilyId() {
+        return claims.get(JwtTokenUtil.CLAIM_FAMILY, String.class);
+    }
+
+    /**
+     * Get role codes embedded in stateless authorities mode, or null if absent
+     */
+    public List<String> getRoles() {
+        List<?> roles = claims.get(JwtTokenUtil.CLAIM_ROLES, List.class);
+        return roles != null ? roles.stream().map(String::valueOf).toList() : null;
+    }
+
+    /**
+     * Get authority version embedded in stateless authorities mode, or null if absent
+     */
+    public Integer getAuthorityVersion() {
+        return claims.get(JwtTokenUtil.CLAIM_AUTHORITY_VERSION, Integer.class);
+    }
+
+    /**
+     * Check if token is expired
+     */
+    public boolean isExpired() {
+        return expiration.isBefore(Instant.now());
+    }
+
+}
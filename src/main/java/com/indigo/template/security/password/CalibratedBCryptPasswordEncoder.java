@@ -0,0 +1,71 @@
+package com.indigo.template.security.password;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Calibrated BCrypt Password Encoder
+ * BCrypt encoder whose work factor is either fixed or measured on this host at startup.
+ * Only stored hashes with a lower cost are reported as needing an upgrade; hashes with a
+ * higher cost are kept, so a node with a lower cost never weakens a stored password.
+ */
+@Slf4j
+@Getter
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Pick the highest work factor whose hash time stays within the target latency on this host
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        long nanos = measure(minStrength);
+        int strength = minStrength;
+        // Every additional cost round doubles the hash time
+        while (strength < maxStrength && nanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        log.info("Calibrated BCrypt strength {} (estimated {} ms per hash, target {} ms)",
+                strength, nanos / 1_000_000, targetLatency.toMillis());
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST_PATTERN.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String sample = "calibration-sample";
+        // Warm up, then keep the fastest run to filter out scheduling noise
+        encoder.encode(sample);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(sample);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.indigo.template.security.password;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Rehashing Authentication Provider
+ * After a successful login, re-encodes a stored hash whose cost differs from the current target.
+ * Unlike the built-in upgrade in DaoAuthenticationProvider, the new hash is computed in the
+ * background on the password hash executor, so the login response does not wait for it.
+ */
+@Slf4j
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordEncoder hashEncoder;
+    private final PasswordHashExecutor passwordHashExecutor;
+    private final UserDetailsPasswordService passwordService;
+
+    /**
+     * @param hashEncoder encoder used inside background tasks, must not submit to the executor itself
+     */
+    public RehashingAuthenticationProvider(PasswordEncoder hashEncoder,
+                                           PasswordHashExecutor passwordHashExecutor,
+                                           UserDetailsPasswordService passwordService) {
+        this.hashEncoder = hashEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.passwordService = passwordService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        if (user.getPassword() != null && hashEncoder.upgradeEncoding(user.getPassword())) {
+            // Credentials are erased once authentication completes, so capture them now
+            String presentedPassword = authentication.getCredentials().toString();
+            UserDetails storedUser = User.withUserDetails(user).build();
+            passwordHashExecutor.submit(() -> {
+                passwordService.updatePassword(storedUser, hashEncoder.encode(presentedPassword));
+                log.info("Rehashed stored password of user: {}", storedUser.getUsername());
+            });
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+
+}
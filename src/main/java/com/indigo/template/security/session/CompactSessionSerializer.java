@@ -0,0 +1,314 @@
+package com.indigo.template.security.session;
+
+import com.indigo.template.entity.User;
+import com.indigo.template.security.userdetails.AuthenticatedUser;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact Session Serializer
+ * Serializes session attributes stored in Redis with a small tagged binary format:
+ * - Session metadata (String, Long, Integer) is written as raw values
+ * - A SecurityContext holding a UsernamePasswordAuthenticationToken with an AuthenticatedUser
+ *   principal is written field by field, authorities as plain strings
+ * - Any other value falls back to JDK serialization
+ * Payloads above the compression threshold are gzipped. Values written by the
+ * default JDK serializer are still readable, so existing sessions survive the switch.
+ */
+public class CompactSessionSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xC5;
+    private static final byte FLAG_GZIP = 0x01;
+
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_SECURITY_CONTEXT = 4;
+    private static final byte TYPE_JDK = 5;
+
+    private static final byte DETAILS_NONE = 0;
+    private static final byte DETAILS_WEB = 1;
+
+    private static final int HEADER_LENGTH = 3;
+    // writeUTF is limited to 65535 encoded bytes, longer strings use JDK serialization
+    private static final int MAX_COMPACT_STRING_LENGTH = 65535 / 3;
+
+    private final int compressionThreshold;
+    private final SerializingConverter jdkSerializer = new SerializingConverter();
+    private final DeserializingConverter jdkDeserializer;
+
+    public CompactSessionSerializer(int compressionThreshold, ClassLoader classLoader) {
+        this.compressionThreshold = compressionThreshold;
+        this.jdkDeserializer = new DeserializingConverter(classLoader);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(buffer);
+            byte type = writeValue(out, value);
+            out.flush();
+            return frame(type, buffer.toByteArray());
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize session attribute", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            // Written by the JDK serializer before the compact format was enabled
+            return jdkDeserializer.convert(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Truncated session attribute");
+        }
+        byte type = bytes[1];
+        byte flags = bytes[2];
+        try {
+            InputStream payload = new ByteArrayInputStream(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            if ((flags & FLAG_GZIP) != 0) {
+                payload = new GZIPInputStream(payload);
+            }
+            return readValue(type, new DataInputStream(payload));
+        } catch (IOException e) {
+            throw new SerializationException("Cannot deserialize session attribute", e);
+        }
+    }
+
+    private byte writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String string && string.length() <= MAX_COMPACT_STRING_LENGTH) {
+            out.writeUTF(string);
+            return TYPE_STRING;
+        }
+        if (value instanceof Long number) {
+            out.writeLong(number);
+            return TYPE_LONG;
+        }
+        if (value instanceof Integer number) {
+            out.writeInt(number);
+            return TYPE_INTEGER;
+        }
+        if (value instanceof SecurityContext context && isCompactable(context)) {
+            writeSecurityContext(out, context);
+            return TYPE_SECURITY_CONTEXT;
+        }
+        out.write(jdkSerializer.convert(value));
+        return TYPE_JDK;
+    }
+
+    private Object readValue(byte type, DataInputStream in) throws IOException {
+        return switch (type) {
+            case TYPE_STRING -> in.readUTF();
+            case TYPE_LONG -> in.readLong();
+            case TYPE_INTEGER -> in.readInt();
+            case TYPE_SECURITY_CONTEXT -> readSecurityContext(in);
+            case TYPE_JDK -> jdkDeserializer.convert(in.readAllBytes());
+            default -> throw new SerializationException("Unknown session attribute type: " + type);
+        };
+    }
+
+    private byte[] frame(byte type, byte[] payload) throws IOException {
+        byte flags = 0;
+        if (payload.length > compressionThreshold) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(payload);
+            }
+            if (compressed.size() < payload.length) {
+                payload = compressed.toByteArray();
+                flags |= FLAG_GZIP;
+            }
+        }
+        byte[] framed = new byte[HEADER_LENGTH + payload.length];
+        framed[0] = MAGIC;
+        framed[1] = type;
+        framed[2] = flags;
+        System.arraycopy(payload, 0, framed, HEADER_LENGTH, payload.length);
+        return framed;
+    }
+
+    /**
+     * Only the shape produced by session login is written compactly,
+     * anything that would lose information goes through JDK serialization
+     */
+    private static boolean isCompactable(SecurityContext context) {
+        if (context.getClass() != SecurityContextImpl.class) {
+            return false;
+        }
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null) {
+            return true;
+        }
+        if (authentication.getClass() != UsernamePasswordAuthenticationToken.class
+                || !authentication.isAuthenticated()
+                || authentication.getCredentials() != null) {
+            return false;
+        }
+        Object details = authentication.getDetails();
+        if (details != null && details.getClass() != WebAuthenticationDetails.class) {
+            return false;
+        }
+        if (!(authentication.getPrincipal() instanceof AuthenticatedUser principal)
+                || principal.getClass() != AuthenticatedUser.class
+                || principal.getUserId() == null
+                || !principal.isEnabled()
+                || !principal.isAccountNonExpired()
+                || !principal.isAccountNonLocked()
+                || !principal.isCredentialsNonExpired()) {
+            return false;
+        }
+        return hasSimpleAuthorities(principal.getAuthorities()) && hasSimpleAuthorities(authentication.getAuthorities());
+    }
+
+    private static boolean hasSimpleAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getClass() != SimpleGrantedAuthority.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeSecurityContext(DataOutputStream out, SecurityContext context) throws IOException {
+        Authentication authentication = context.getAuthentication();
+        out.writeBoolean(authentication != null);
+        if (authentication == null) {
+            return;
+        }
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        out.writeLong(principal.getUserId());
+        out.writeUTF(principal.getUsername());
+        writeNullableString(out, principal.getPassword());
+        writeNullableString(out, principal.getEmail());
+        writeNullableString(out, principal.getPhone());
+        writeNullableString(out, principal.getNickname());
+        writeNullableString(out, principal.getAvatar());
+        writeNullableInteger(out, principal.getStatus());
+        writeNullableInteger(out, principal.getAuthorityVersion());
+        writeAuthorities(out, principal.getAuthorities());
+
+        // The token normally carries the principal's authorities, store them only when they differ
+        boolean sameAuthorities = sameAuthorities(authentication.getAuthorities(), principal.getAuthorities());
+        out.writeBoolean(sameAuthorities);
+        if (!sameAuthorities) {
+            writeAuthorities(out, authentication.getAuthorities());
+        }
+
+        if (authentication.getDetails() instanceof WebAuthenticationDetails details) {
+            out.writeByte(DETAILS_WEB);
+            writeNullableString(out, details.getRemoteAddress());
+            writeNullableString(out, details.getSessionId());
+        } else {
+            out.writeByte(DETAILS_NONE);
+        }
+    }
+
+    private static SecurityContext readSecurityContext(DataInputStream in) throws IOException {
+        SecurityContextImpl context = new SecurityContextImpl();
+        if (!in.readBoolean()) {
+            return context;
+        }
+        User user = new User();
+        user.setId(in.readLong());
+        user.setUsername(in.readUTF());
+        String password = readNullableString(in);
+        user.setPassword(password != null ? password : "");
+        user.setEmail(readNullableString(in));
+        user.setPhone(readNullableString(in));
+        user.setNickname(readNullableString(in));
+        user.setAvatar(readNullableString(in));
+        user.setStatus(readNullableInteger(in));
+        user.setAuthorityVersion(readNullableInteger(in));
+        List<GrantedAuthority> principalAuthorities = readAuthorities(in);
+
+        AuthenticatedUser principal = new AuthenticatedUser(user, principalAuthorities);
+        if (password == null) {
+            principal.eraseCredentials();
+        }
+        Collection<? extends GrantedAuthority> authorities = in.readBoolean()
+                ? principal.getAuthorities()
+                : readAuthorities(in);
+
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+        if (in.readByte() == DETAILS_WEB) {
+            authentication.setDetails(new WebAuthenticationDetails(readNullableString(in), readNullableString(in)));
+        }
+        context.setAuthentication(authentication);
+        return context;
+    }
+
+    private static boolean sameAuthorities(Collection<? extends GrantedAuthority> left,
+                                           Collection<? extends GrantedAuthority> right) {
+        return left.size() == right.size() && new ArrayList<>(left).equals(new ArrayList<>(right));
+    }
+
+    private static void writeAuthorities(DataOutputStream out, Collection<? extends GrantedAuthority> authorities)
+            throws IOException {
+        out.writeShort(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            out.writeUTF(authority.getAuthority());
+        }
+    }
+
+    private static List<GrantedAuthority> readAuthorities(DataInputStream in) throws IOException {
+        int size = in.readUnsignedShort();
+        List<GrantedAuthority> authorities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            authorities.add(new SimpleGrantedAuthority(in.readUTF()));
+        }
+        return authorities;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readNullableInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+}
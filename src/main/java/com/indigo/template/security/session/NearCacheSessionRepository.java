@@ -0,0 +1,353 @@
+package com.indigo.template.security.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Near-cache Session Repository
+ * Keeps a bounded local copy of recently used sessions in front of the Redis session repository.
+ * - Reads are served locally for at most max-staleness after the copy was loaded or written
+ * - Attribute and timeout changes are written through to Redis, then other nodes drop their
+ *   copy through a Redis pub/sub invalidation message
+ * - Pure last-access updates are written to Redis at most once per touch-interval,
+ *   which keeps the Redis TTL fresh without one write per request
+ * Local copies hold attribute values serialized with the session serializer, and every request
+ * deserializes its own objects, so requests never share mutable attribute instances.
+ */
+@Slf4j
+public class NearCacheSessionRepository<S extends Session>
+        implements SessionRepository<NearCacheSessionRepository.NearCacheSession<S>>, MessageListener {
+
+    private static final String MESSAGE_SEPARATOR = ":";
+    private static final String ID_SEPARATOR = ",";
+
+    private final SessionRepository<S> delegate;
+    private final Cache<String, CachedSession> sessionCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String invalidationChannel;
+    private final Duration touchInterval;
+    private final RedisSerializer<Object> attributeSerializer;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public NearCacheSessionRepository(SessionRepository<S> delegate,
+                                      Cache<String, CachedSession> sessionCache,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      String invalidationChannel,
+                                      Duration touchInterval,
+                                      RedisSerializer<Object> attributeSerializer) {
+        this.delegate = delegate;
+        this.sessionCache = sessionCache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationChannel = invalidationChannel;
+        this.touchInterval = touchInterval;
+        this.attributeSerializer = attributeSerializer;
+    }
+
+    @Override
+    public NearCacheSession<S> createSession() {
+        S session = delegate.createSession();
+        return new NearCacheSession<>(new MapSession(session), session, delegate, null, true);
+    }
+
+    @Override
+    public void save(NearCacheSession<S> session) {
+        if (!session.isDirty() && !isTouchDue(session)) {
+            // Nothing Redis needs to know yet, only keep the local last-access time current.
+            // The entry is not replaced, so its staleness window keeps counting from the load.
+            CachedSession cached = sessionCache.getIfPresent(session.getId());
+            if (cached != null) {
+                cached.touch(session.getLastAccessedTime());
+            }
+            return;
+        }
+
+        S target = session.loadDelegateSession();
+        if (target == null) {
+            // Expired or deleted in Redis meanwhile, drop the stale local copy
+            invalidateLocal(session.originalId);
+            return;
+        }
+        for (String name : session.changedAttributes) {
+            target.setAttribute(name, session.local.getAttribute(name));
+        }
+        if (session.maxInactiveIntervalChanged) {
+            target.setMaxInactiveInterval(session.local.getMaxInactiveInterval());
+        }
+        target.setLastAccessedTime(session.local.getLastAccessedTime());
+        delegate.save(target);
+
+        boolean publish = !session.isNew && session.isContentChanged();
+        String previousId = session.originalId;
+        session.markPersisted();
+        sessionCache.put(target.getId(), new CachedSession(target, target.getLastAccessedTime(), attributeSerializer));
+        if (!previousId.equals(target.getId())) {
+            sessionCache.invalidate(previousId);
+        }
+        if (publish) {
+            publishInvalidation(previousId);
+        }
+    }
+
+    @Override
+    public NearCacheSession<S> findById(String id) {
+        CachedSession cached = sessionCache.getIfPresent(id);
+        if (cached != null) {
+            MapSession local = cached.copy(attributeSerializer);
+            if (!local.isExpired()) {
+                return new NearCacheSession<>(local, null, delegate, cached.persistedAccessTime, false);
+            }
+            sessionCache.invalidate(id);
+        }
+
+        S session = delegate.findById(id);
+        if (session == null) {
+            return null;
+        }
+        sessionCache.put(id, new CachedSession(session, session.getLastAccessedTime(), attributeSerializer));
+        return new NearCacheSession<>(new MapSession(session), session, delegate, session.getLastAccessedTime(), false);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        sessionCache.invalidate(id);
+        publishInvalidation(id);
+    }
+
+    /**
+     * Drop a local copy without touching Redis
+     */
+    public void invalidateLocal(String id) {
+        sessionCache.invalidate(id);
+    }
+
+    /**
+     * Drop local copies on every node after the sessions were removed from Redis directly
+     */
+    public void evict(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        sessionCache.invalidateAll(ids);
+        publishInvalidation(String.join(ID_SEPARATOR, ids));
+    }
+
+    /**
+     * Invalidation message from another node
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String sessionIds = body.substring(separator + 1);
+        sessionCache.invalidateAll(Arrays.asList(sessionIds.split(ID_SEPARATOR)));
+        log.debug("Invalidated near-cached sessions from remote node: {}", sessionIds);
+    }
+
+    private boolean isTouchDue(NearCacheSession<S> session) {
+        Instant persisted = session.persistedAccessTime;
+        return persisted == null
+                || Duration.between(persisted, session.local.getLastAccessedTime()).compareTo(touchInterval) >= 0;
+    }
+
+    private void publishInvalidation(String sessionIds) {
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, nodeId + MESSAGE_SEPARATOR + sessionIds);
+        } catch (Exception e) {
+            // Other nodes still drop their copy once max-staleness elapses
+            log.warn("Failed to publish session invalidation for {}: {}", sessionIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Local cache entry: session metadata with serialized attribute values, the last-access
+     * time Redis holds and the latest last-access time seen on this node
+     */
+    public static final class CachedSession {
+
+        private final String id;
+        private final Instant creationTime;
+        private final Duration maxInactiveInterval;
+        private final Map<String, byte[]> attributes;
+        private final Instant persistedAccessTime;
+        private volatile Instant lastAccessedTime;
+
+        CachedSession(Session session, Instant persistedAccessTime, RedisSerializer<Object> serializer) {
+            this.id = session.getId();
+            this.creationTime = session.getCreationTime();
+            this.maxInactiveInterval = session.getMaxInactiveInterval();
+            Map<String, byte[]> serialized = new HashMap<>();
+            for (String name : session.getAttributeNames()) {
+                Object value = session.getAttribute(name);
+                if (value != null) {
+                    serialized.put(name, serializer.serialize(value));
+                }
+            }
+            this.attributes = Map.copyOf(serialized);
+            this.persistedAccessTime = persistedAccessTime;
+            this.lastAccessedTime = session.getLastAccessedTime();
+        }
+
+        void touch(Instant accessedTime) {
+            if (accessedTime.isAfter(lastAccessedTime)) {
+                lastAccessedTime = accessedTime;
+            }
+        }
+
+        /**
+         * Fresh session with newly deserialized attribute values, owned by a single request
+         */
+        MapSession copy(RedisSerializer<Object> serializer) {
+            MapSession copy = new MapSession(id);
+            copy.setCreationTime(creationTime);
+            copy.setMaxInactiveInterval(maxInactiveInterval);
+            copy.setLastAccessedTime(lastAccessedTime);
+            attributes.forEach((name, value) -> copy.setAttribute(name, serializer.deserialize(value)));
+            return copy;
+        }
+    }
+
+    /**
+     * Request-scoped session view over a local copy, tracking what must be written through
+     */
+    public static final class NearCacheSession<S extends Session> implements Session {
+
+        private final MapSession local;
+        private final SessionRepository<S> repository;
+        private final Set<String> changedAttributes = new HashSet<>();
+        private S delegateSession;
+        private String originalId;
+        private Instant persistedAccessTime;
+        private boolean isNew;
+        private boolean maxInactiveIntervalChanged;
+
+        NearCacheSession(MapSession local, S delegateSession, SessionRepository<S> repository,
+                         Instant persistedAccessTime, boolean isNew) {
+            this.local = local;
+            this.delegateSession = delegateSession;
+            this.repository = repository;
+            this.originalId = local.getId();
+            this.persistedAccessTime = persistedAccessTime;
+            this.isNew = isNew;
+        }
+
+        @Override
+        public String getId() {
+            return local.getId();
+        }
+
+        /**
+         * Session id changes are applied by the Redis session itself, which renames its key on save
+         */
+        @Override
+        public String changeSessionId() {
+            if (loadDelegateSession() == null) {
+                throw new IllegalStateException("Session " + originalId + " no longer exists");
+            }
+            String newId = delegateSession.changeSessionId();
+            local.setId(newId);
+            return newId;
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return local.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return local.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            local.setAttribute(attributeName, attributeValue);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            local.removeAttribute(attributeName);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return local.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            local.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return local.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            local.setMaxInactiveInterval(interval);
+            maxInactiveIntervalChanged = true;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return local.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return local.isExpired();
+        }
+
+        private boolean isContentChanged() {
+            return !changedAttributes.isEmpty() || maxInactiveIntervalChanged || !local.getId().equals(originalId);
+        }
+
+        private boolean isDirty() {
+            return isNew || isContentChanged();
+        }
+
+        /**
+         * Redis-backed session this view writes through to, loaded on first need
+         */
+        private S loadDelegateSession() {
+            if (delegateSession == null) {
+                delegateSession = repository.findById(originalId);
+            }
+            return delegateSession;
+        }
+
+        private void markPersisted() {
+            originalId = local.getId();
+            persistedAccessTime = local.getLastAccessedTime();
+            isNew = false;
+            maxInactiveIntervalChanged = false;
+            changedAttributes.clear();
+        }
+    }
+
+}
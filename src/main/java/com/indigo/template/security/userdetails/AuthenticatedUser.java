@@ -0,0 +1,49 @@
+package com.indigo.template.security.userdetails;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated User Principal
+ * Carries the user profile loaded during authentication,
+ * so login responses can be built without querying the user again
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+    private final String email;
+    private final String phone;
+    private final String nickname;
+    private final String avatar;
+    private final Integer status;
+    private final Integer authorityVersion;
+
+    public AuthenticatedUser(com.indigo.template.entity.User user,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(user.getUsername(), user.getPassword(), authorities);
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.phone = user.getPhone();
+        this.nickname = user.getNickname();
+        this.avatar = user.getAvatar();
+        this.status = user.getStatus();
+        this.authorityVersion = user.getAuthorityVersion();
+    }
+
+    /**
+     * Get role codes of the user
+     */
+    public List<String> getRoleCodes() {
+        return getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+
+}
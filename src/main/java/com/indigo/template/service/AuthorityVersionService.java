@@ -0,0 +1,71 @@
+package com.indigo.template.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.indigo.template.entity.User;
+import com.indigo.template.event.UserChangedEvent;
+import com.indigo.template.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Authority Version Service
+ * Tracks the per-user authority version embedded in access tokens,
+ * so tokens issued before a role or status change can be detected as stale
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthorityVersionService {
+
+    /**
+     * Cached in place of a version for users that do not exist or are disabled
+     */
+    private static final int ABSENT = -1;
+
+    private final UserMapper userMapper;
+    private final Cache<String, Integer> authorityVersionCache;
+
+    /**
+     * Get current authority version of an active user
+     *
+     * @return version, or null if the user does not exist or is disabled
+     */
+    public Integer getAuthorityVersion(String username) {
+        Integer version = authorityVersionCache.get(username, this::loadAuthorityVersion);
+        return version == ABSENT ? null : version;
+    }
+
+    /**
+     * Increment authority version, invalidating every token issued so far for the user.
+     * Call after changing a user's roles or status.
+     */
+    public void incrementAuthorityVersion(String username) {
+        userMapper.update(null, new LambdaUpdateWrapper<User>()
+                .setSql("authority_version = authority_version + 1")
+                .eq(User::getUsername, username));
+        authorityVersionCache.invalidate(username);
+        log.info("Incremented authority version for user: {}", username);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        authorityVersionCache.invalidate(event.getUsername());
+    }
+
+    /**
+     * Missing and disabled users are cached as ABSENT, so tokens of such users
+     * do not reach the database on every request
+     */
+    private Integer loadAuthorityVersion(String username) {
+        User user = userMapper.selectOne(new LambdaQueryWrapper<User>()
+                .select(User::getAuthorityVersion)
+                .eq(User::getUsername, username)
+                .eq(User::getStatus, 1));
+        return user != null && user.getAuthorityVersion() != null ? user.getAuthorityVersion() : ABSENT;
+    }
+
+}
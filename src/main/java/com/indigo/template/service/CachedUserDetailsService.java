@@ -0,0 +1,69 @@
+package com.indigo.template.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.indigo.template.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cached User Details Service
+ * Caching decorator around UserService for the request authentication path.
+ * Concurrent misses for the same username share a single database load.
+ * Login keeps using UserService directly so password checks always see the stored hash.
+ */
+@Slf4j
+@Service
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final UserService userService;
+    private final Cache<String, UserDetails> userDetailsCache;
+
+    public CachedUserDetailsService(UserService userService,
+                                    Cache<String, UserDetails> userDetailsCache,
+                                    MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.userDetailsCache = userDetailsCache;
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "userDetails");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Caffeine runs the loader at most once per key, other callers wait for its result
+        return userDetailsCache.get(username, userService::loadUserByUsername);
+    }
+
+    /**
+     * Evict cached details of a user
+     */
+    public void evict(String username) {
+        userDetailsCache.invalidate(username);
+        log.debug("Evicted cached user details: {}", username);
+    }
+
+    /**
+     * Evict all cached user details
+     */
+    public void evictAll() {
+        userDetailsCache.invalidateAll();
+        log.info("Evicted all cached user details");
+    }
+
+    /**
+     * Runs before the JWT authentication cache is evicted, so an authentication rebuilt
+     * in between is built from freshly loaded details
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.getUsername());
+    }
+
+}
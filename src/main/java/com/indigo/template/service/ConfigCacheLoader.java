@@ -0,0 +1,173 @@
+package com.indigo.template.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.indigo.template.entity.Config;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Config Cache Loader
+ * 配置缓存加载器 - 未命中时从数据库加载, 批量未命中使用一次IN查询
+ * 后台刷新失败时抛出异常, Caffeine保留旧值继续提供服务, 失败次数记录在config.cache.reload.failures
+ * 后台刷新在专用的有界线程池中执行, 队列满时跳过本次刷新(保留旧值, 计入config.cache.refresh.rejected), 不占用请求线程
+ * 加载和刷新的结果通过LoadListener通知ConfigCacheService, 与配置快照保持一致
+ */
+@Slf4j
+@Component
+public class ConfigCacheLoader implements CacheLoader<String, ConfigEntry> {
+
+    /**
+     * 加载结果监听器
+     */
+    public interface LoadListener {
+
+        /**
+         * 开始读取数据库前调用, 返回值原样传给onLoaded
+         */
+        long beforeLoad();
+
+        /**
+         * 从数据库读取到键的最新值后调用(加载或后台刷新), 数据库中不存在时entry为null
+         */
+        void onLoaded(String key, ConfigEntry entry, long marker);
+    }
+
+    private final ConfigService configService;
+    private final Counter reloadFailures;
+    private final Counter refreshRejected;
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private volatile LoadListener loadListener;
+
+    public ConfigCacheLoader(ConfigService configService,
+                             MeterRegistry meterRegistry,
+                             @Value("${config.cache.refresh-threads:2}") int refreshThreads,
+                             @Value("${config.cache.refresh-queue-capacity:1000}") int refreshQueueCapacity) {
+        this.configService = configService;
+        this.reloadFailures = Counter.builder("config.cache.reload.failures")
+                .description("Background config cache reloads that failed and kept the previous value")
+                .register(meterRegistry);
+        this.refreshRejected = Counter.builder("config.cache.refresh.rejected")
+                .description("Background config cache refreshes skipped because the refresh queue was full")
+                .register(meterRegistry);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(refreshQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "config-refresh-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public void setLoadListener(LoadListener loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    @Override
+    public ConfigEntry load(String key) {
+        long marker = beforeLoad();
+        Config config = configService.getConfigByKey(key);
+        log.debug("Cache miss for key: {}, loaded from database: {}", key, config != null ? "found" : "not found");
+        ConfigEntry entry = config != null ? ConfigEntry.of(config) : null;
+        notifyLoaded(key, entry, marker);
+        return entry;
+    }
+
+    @Override
+    public Map<String, ConfigEntry> loadAll(Set<? extends String> keys) {
+        long marker = beforeLoad();
+        List<Config> configs = configService.getConfigsByKeys(Set.copyOf(keys));
+        Map<String, ConfigEntry> entries = new HashMap<>(configs.size() * 2);
+        for (Config config : configs) {
+            entries.put(config.getConfigKey(), ConfigEntry.of(config));
+        }
+        log.debug("Cache miss for {} keys, loaded {} from database", keys.size(), entries.size());
+        for (String key : keys) {
+            notifyLoaded(key, entries.get(key), marker);
+        }
+        return entries;
+    }
+
+    /**
+     * 后台刷新, 数据库中已删除的键返回null并从缓存移除
+     */
+    @Override
+    public ConfigEntry reload(String key, ConfigEntry oldValue) throws Exception {
+        long marker = beforeLoad();
+        try {
+            Config config = configService.getConfigByKey(key);
+            ConfigEntry entry = config != null ? ConfigEntry.of(config) : null;
+            notifyLoaded(key, entry, marker);
+            return entry;
+        } catch (Exception e) {
+            reloadFailures.increment();
+            log.warn("Failed to reload config key: {}, keeping previous value: {}", key, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * 后台刷新提交到专用线程池; 队列已满时直接返回旧值, 本次刷新跳过, 下个刷新周期再读取数据库
+     */
+    @Override
+    public CompletableFuture<? extends ConfigEntry> asyncReload(String key, ConfigEntry oldValue, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return reload(key, oldValue);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, refreshExecutor);
+        } catch (RejectedExecutionException e) {
+            refreshRejected.increment();
+            log.debug("Refresh queue full, skipped refresh of config key: {}", key);
+            return CompletableFuture.completedFuture(oldValue);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private long beforeLoad() {
+        LoadListener listener = loadListener;
+        return listener != null ? listener.beforeLoad() : 0;
+    }
+
+    private void notifyLoaded(String key, ConfigEntry entry, long marker) {
+        LoadListener listener = loadListener;
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onLoaded(key, entry, marker);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply loaded config key: {} to snapshot: {}", key, e.getMessage());
+        }
+    }
+}
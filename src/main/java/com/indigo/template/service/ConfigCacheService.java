@@ -1,26 +1,118 @@
 package com.indigo.template.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.indigo.template.common.util.BloomFilter;
 import com.indigo.template.entity.Config;
+import com.indigo.template.event.ConfigChangedEvent;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Config Cache Service
- * 配置缓存服务 - 使用Caffeine本地缓存
+ * 配置缓存服务 - 使用Caffeine本地缓存(异步加载, 到达刷新时间后先返回旧值再后台刷新)
+ * 每次变更后发布ConfigChangedEvent, 由ConfigSyncService广播到其他节点
+ * 缓存内容同时维护为不可变的ConfigSnapshot, 仅在变更时重建; 未命中加载和后台刷新读到的新值同样更新快照并发布事件
+ * 类型化读取(getInt、getDuration等)的解析结果缓存在配置条目上, 热路径不重复解析
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ConfigCacheService {
 
-    private final Cache<String, String> configCache;
+    private final AsyncLoadingCache<String, ConfigEntry> asyncConfigCache;
+    private final Cache<String, Boolean> configNegativeCache;
     private final ConfigService configService;
+    private final ConfigCacheLoader configCacheLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${config.key-filter.false-positive-rate:0.01}")
+    private double keyFilterFalsePositiveRate;
+
+    /**
+     * 全量加载、增量刷新以及所有写入在此锁内修改缓存、快照和布隆过滤器, 全量加载期间的写入不会被覆盖
+     */
+    private final Object refreshLock = new Object();
+
+    /**
+     * 每次写入、删除和全量加载时递增, 从数据库读取的一方据此判断读取期间是否有写入,
+     * 避免用读取到的旧结果覆盖快照或写入过期的负缓存
+     */
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    /**
+     * 异步缓存的同步视图
+     */
+    private LoadingCache<String, ConfigEntry> configCache;
+
+    private volatile ConfigSnapshot snapshot;
+
+    /**
+     * 已加载数据的最大updated_at, 增量刷新从这里继续
+     */
+    private volatile LocalDateTime watermark;
+
+    /**
+     * 数据库中配置键的布隆过滤器, 全量加载时重建, 新增键时追加; 未完成首次加载前为null
+     */
+    private volatile BloomFilter keyFilter;
+
+    /**
+     * JSON转换器, 依赖ObjectMapper, 作为解析结果缓存键保持同一实例
+     */
+    private Function<String, JsonNode> jsonConverter;
+
+    @PostConstruct
+    public void init() {
+        configCache = asyncConfigCache.synchronous();
+        jsonConverter = value -> {
+            try {
+                return objectMapper.readTree(value);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage(), e);
+            }
+        };
+        snapshot = ConfigSnapshot.build(0, new TreeMap<>(), objectMapper);
+        configCacheLoader.setLoadListener(new ConfigCacheLoader.LoadListener() {
+            @Override
+            public long beforeLoad() {
+                return writeVersion.get();
+            }
+
+            @Override
+            public void onLoaded(String key, ConfigEntry entry, long marker) {
+                applyLoaded(key, entry, marker);
+            }
+        });
+    }
 
     /**
      * 从数据库加载所有配置到缓存
@@ -28,13 +120,8 @@ public class ConfigCacheService {
      */
     public void loadConfigsToCache() {
         log.info("Loading configs from database to Caffeine cache...");
-        List<Config> configs = configService.getAllConfigs();
-        
-        for (Config config : configs) {
-            configCache.put(config.getConfigKey(), config.getConfigValue());
-        }
-        
-        log.info("Loaded {} configs to Caffeine cache", configs.size());
+        int count = reloadAll();
+        log.info("Loaded {} configs to Caffeine cache", count);
     }
 
     /**
@@ -43,13 +130,109 @@ public class ConfigCacheService {
      * 如果数据库中也不存在，返回null
      */
     public String getConfigValue(String key) {
-        return configCache.get(key, k -> {
-            String value = configService.getConfigValue(k);
-            log.debug("Cache miss for key: {}, loaded from database: {}", k, value != null ? "found" : "not found");
-            // Caffeine allows null values to be cached, which is appropriate here
-            // as it distinguishes between "key never queried" vs "key queried but not found"
-            return value;
-        });
+        ConfigEntry entry = getEntry(key);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    public Integer getInt(String key, Integer defaultValue) {
+        return getValue(key, ConfigConverters.INT, defaultValue);
+    }
+
+    public Long getLong(String key, Long defaultValue) {
+        return getValue(key, ConfigConverters.LONG, defaultValue);
+    }
+
+    public Boolean getBoolean(String key, Boolean defaultValue) {
+        return getValue(key, ConfigConverters.BOOLEAN, defaultValue);
+    }
+
+    public Duration getDuration(String key, Duration defaultValue) {
+        return getValue(key, ConfigConverters.DURATION, defaultValue);
+    }
+
+    public DataSize getDataSize(String key, DataSize defaultValue) {
+        return getValue(key, ConfigConverters.DATA_SIZE, defaultValue);
+    }
+
+    /**
+     * 获取JSON配置, 返回的树在读取方之间共享, 不要修改
+     */
+    public JsonNode getJson(String key) {
+        return getValue(key, jsonConverter, null);
+    }
+
+    /**
+     * 获取按指定转换器解析后的配置值
+     * 解析结果缓存在配置条目上, 同一个值只解析一次, 配置变更后自动失效
+     * 转换器是缓存键, 应使用常量而不是每次调用新建的lambda
+     *
+     * @return 解析结果; 配置不存在或解析失败时返回默认值
+     */
+    public <T> T getValue(String key, Function<String, T> converter, T defaultValue) {
+        ConfigEntry entry = getEntry(key);
+        if (entry == null) {
+            return defaultValue;
+        }
+        T parsed = entry.getParsed(converter);
+        return parsed != null ? parsed : defaultValue;
+    }
+
+    /**
+     * 获取目标类型对应的内置转换器
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Function<String, T> converterFor(Class<T> type) {
+        Function<String, ?> converter;
+        if (type == String.class) {
+            converter = ConfigConverters.STRING;
+        } else if (type == Integer.class) {
+            converter = ConfigConverters.INT;
+        } else if (type == Long.class) {
+            converter = ConfigConverters.LONG;
+        } else if (type == Boolean.class) {
+            converter = ConfigConverters.BOOLEAN;
+        } else if (type == Duration.class) {
+            converter = ConfigConverters.DURATION;
+        } else if (type == DataSize.class) {
+            converter = ConfigConverters.DATA_SIZE;
+        } else if (type == JsonNode.class) {
+            converter = jsonConverter;
+        } else {
+            throw new IllegalArgumentException("Unsupported config value type: " + type.getName());
+        }
+        return (Function<String, T>) converter;
+    }
+
+    /**
+     * 批量获取配置值
+     * 缓存未命中的键通过一次IN查询加载, 结果按请求顺序返回, 只包含存在的键
+     */
+    public Map<String, String> getConfigValues(Collection<String> keys) {
+        BloomFilter filter = keyFilter;
+        Set<String> candidates = new LinkedHashSet<>();
+        for (String key : keys) {
+            if ((filter == null || filter.mightContain(key)) && !isKnownAbsent(key)) {
+                candidates.add(key);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+
+        // 未命中的键通过ConfigCacheLoader.loadAll一次加载
+        long version = writeVersion.get();
+        Map<String, ConfigEntry> found = configCache.getAll(candidates);
+
+        Map<String, String> result = new LinkedHashMap<>(found.size() * 2);
+        for (String key : candidates) {
+            ConfigEntry entry = found.get(key);
+            if (entry != null) {
+                result.put(key, entry.getValue());
+            } else {
+                markAbsent(key, version);
+            }
+        }
+        return result;
     }
 
     /**
@@ -62,9 +245,47 @@ public class ConfigCacheService {
         config.setDescription(description);
         
         configService.saveOrUpdate(config);
-        configCache.put(key, value);
+        synchronized (refreshLock) {
+            markPresent(key);
+            configCache.put(key, withValue(key, value));
+            updateSnapshot(current -> current.put(key, value));
+        }
         
         log.info("Updated config in cache and database: key={}, value={}", key, value);
+        eventPublisher.publishEvent(new ConfigChangedEvent(ConfigChangedEvent.Type.UPDATED, key, value, false));
+    }
+
+    /**
+     * 批量更新配置到数据库和缓存
+     * 同一个键出现多次时以最后一次为准; 数据库写入在一个事务中完成后, 一次性更新缓存和快照,
+     * 只发布一条REFRESHED事件, 其他节点据此从数据库全量同步一次, 而不是逐键广播
+     *
+     * @return 写入的配置数
+     */
+    public int updateConfigs(List<Config> configs) {
+        Map<String, Config> latest = new LinkedHashMap<>(configs.size() * 2);
+        for (Config config : configs) {
+            latest.put(config.getConfigKey(), config);
+        }
+        if (latest.isEmpty()) {
+            return 0;
+        }
+
+        configService.saveOrUpdateBatch(new ArrayList<>(latest.values()));
+        synchronized (refreshLock) {
+            Map<String, ConfigEntry> entries = new HashMap<>(latest.size() * 2);
+            for (Config config : latest.values()) {
+                markPresent(config.getConfigKey());
+                entries.put(config.getConfigKey(), withValue(config.getConfigKey(), config.getConfigValue()));
+            }
+            configCache.putAll(entries);
+            updateSnapshot(current -> latest.values().forEach(config ->
+                    current.put(config.getConfigKey(), config.getConfigValue())));
+        }
+
+        log.info("Updated {} configs in cache and database", latest.size());
+        eventPublisher.publishEvent(new ConfigChangedEvent(ConfigChangedEvent.Type.REFRESHED, null, null, false));
+        return latest.size();
     }
 
     /**
@@ -72,26 +293,126 @@ public class ConfigCacheService {
      */
     public void deleteConfig(String key) {
         configService.deleteByKey(key);
-        configCache.invalidate(key);
+        synchronized (refreshLock) {
+            markDeleted(key);
+            updateSnapshot(current -> current.remove(key));
+        }
         
         log.info("Deleted config from cache and database: key={}", key);
+        eventPublisher.publishEvent(new ConfigChangedEvent(ConfigChangedEvent.Type.DELETED, key, null, false));
     }
 
     /**
      * 刷新缓存 - 重新从数据库加载所有配置
+     * 新配置表在旁路构建后整体替换, 刷新期间读取不会出现空缓存
      */
     public void refreshCache() {
         log.info("Refreshing Caffeine cache...");
-        configCache.invalidateAll();
-        loadConfigsToCache();
+        int count = reloadAll();
+        log.info("Refreshed {} configs in Caffeine cache", count);
+        eventPublisher.publishEvent(new ConfigChangedEvent(ConfigChangedEvent.Type.REFRESHED, null, null, false));
+    }
+
+    /**
+     * 应用其他节点广播的单键更新, 仅修改本地缓存
+     */
+    public void applyRemoteUpdate(String key, String value) {
+        synchronized (refreshLock) {
+            markPresent(key);
+            configCache.put(key, withValue(key, value));
+            updateSnapshot(current -> current.put(key, value));
+        }
+        log.debug("Applied remote config update: key={}", key);
+        eventPublisher.publishEvent(new ConfigChangedEvent(ConfigChangedEvent.Type.UPDATED, key, value, true));
+    }
+
+    /**
+     * 应用其他节点广播的单键删除, 仅修改本地缓存
+     */
+    public void applyRemoteDelete(String key) {
+        synchronized (refreshLock) {
+            markDeleted(key);
+            updateSnapshot(current -> current.remove(key));
+        }
+        log.debug("Applied remote config delete: key={}", key);
+        eventPublisher.publishEvent(new ConfigChangedEvent(ConfigChangedEvent.Type.DELETED, key, null, true));
+    }
+
+    /**
+     * 全量重新同步 - 由跨节点同步在丢失变更消息或收到刷新广播时调用
+     */
+    public void resyncFromDatabase() {
+        int count = reloadAll();
+        log.info("Resynced {} configs from database", count);
+        eventPublisher.publishEvent(new ConfigChangedEvent(ConfigChangedEvent.Type.REFRESHED, null, null, true));
+    }
+
+    /**
+     * 增量刷新 - 只读取updated_at不早于水位线(减去重叠窗口)的行, 包括已逻辑删除的行, 原地应用到缓存
+     * 重叠窗口覆盖秒级时间精度、节点时钟偏差和提交较晚的事务, 重复读取到的行按值比较后跳过
+     *
+     * @return 实际变更的配置数
+     */
+    public int refreshIncrementally(Duration overlap) {
+        // 变更先收集起来, 快照只重建一次, 事件在释放锁之后发布
+        List<ConfigChangedEvent> events = new ArrayList<>();
+        synchronized (refreshLock) {
+            LocalDateTime since = watermark != null ? watermark.minus(overlap) : LocalDateTime.of(1970, 1, 1, 0, 0);
+            List<Config> changedRows = configService.getConfigsChangedSince(since);
+            Map<String, String> current = snapshot.getConfigs();
+            Map<String, String> updated = new HashMap<>();
+            Set<String> deleted = new HashSet<>();
+            for (Config config : changedRows) {
+                String key = config.getConfigKey();
+                if (Integer.valueOf(1).equals(config.getDeleted())) {
+                    boolean pendingUpdate = updated.remove(key) != null;
+                    if (current.containsKey(key) || pendingUpdate) {
+                        markDeleted(key);
+                        deleted.add(key);
+                        events.add(new ConfigChangedEvent(ConfigChangedEvent.Type.DELETED, key, null, true));
+                    }
+                } else if (!config.getConfigValue().equals(updated.containsKey(key) ? updated.get(key) : current.get(key))
+                        || ttlChanged(key, config.getTtlSeconds())) {
+                    markPresent(key);
+                    configCache.put(key, ConfigEntry.of(config));
+                    updated.put(key, config.getConfigValue());
+                    deleted.remove(key);
+                    events.add(new ConfigChangedEvent(
+                            ConfigChangedEvent.Type.UPDATED, key, config.getConfigValue(), true));
+                }
+                advanceWatermark(config.getUpdatedAt());
+            }
+            if (!events.isEmpty()) {
+                updateSnapshot(configs -> {
+                    configs.keySet().removeAll(deleted);
+                    configs.putAll(updated);
+                });
+                log.info("Incremental config refresh applied {} changes, watermark: {}", events.size(), watermark);
+            }
+        }
+        events.forEach(eventPublisher::publishEvent);
+        return events.size();
     }
 
     /**
-     * 获取缓存中的所有配置
+     * 获取缓存中的所有配置(只读, 按键排序)
      */
     public Map<String, String> getAllCachedConfigs() {
-        return configCache.asMap().entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        return snapshot.getConfigs();
+    }
+
+    /**
+     * 按前缀(命名空间)获取配置, 例如 "system." 返回 system.name、system.version
+     */
+    public Map<String, String> getConfigsByPrefix(String prefix) {
+        return snapshot.getByPrefix(prefix);
+    }
+
+    /**
+     * 获取当前配置快照
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -103,9 +424,167 @@ public class ConfigCacheService {
 
     /**
      * 清空缓存
+     * 只清空Caffeine中的条目, 之后按需从数据库重新加载; 配置快照不变, 不产生删除事件
      */
     public void clearCache() {
         configCache.invalidateAll();
         log.info("Cleared all entries from Caffeine cache");
     }
+
+    /**
+     * 全量加载: 在旁路构建新配置表, 先写入新值再移除已不存在的键, 最后整体替换快照
+     * 读取在任何时刻都能命中旧值或新值
+     */
+    private int reloadAll() {
+        synchronized (refreshLock) {
+            List<Config> configs = configService.getAllConfigs();
+            TreeMap<String, String> latest = new TreeMap<>();
+            Map<String, ConfigEntry> entries = new HashMap<>(configs.size() * 2);
+            LocalDateTime maxUpdatedAt = null;
+            for (Config config : configs) {
+                latest.put(config.getConfigKey(), config.getConfigValue());
+                entries.put(config.getConfigKey(), ConfigEntry.of(config));
+                if (config.getUpdatedAt() != null && (maxUpdatedAt == null || config.getUpdatedAt().isAfter(maxUpdatedAt))) {
+                    maxUpdatedAt = config.getUpdatedAt();
+                }
+            }
+
+            configCache.putAll(entries);
+            Set<String> staleKeys = configCache.asMap().keySet().stream()
+                    .filter(key -> !latest.containsKey(key))
+                    .collect(Collectors.toSet());
+            configCache.invalidateAll(staleKeys);
+            updateSnapshot(current -> {
+                current.clear();
+                current.putAll(latest);
+            });
+            watermark = maxUpdatedAt;
+            keyFilter = BloomFilter.of(latest.keySet(), keyFilterFalsePositiveRate);
+            writeVersion.incrementAndGet();
+            configNegativeCache.invalidateAll();
+            return latest.size();
+        }
+    }
+
+    /**
+     * 查找配置条目: 布隆过滤器和负缓存拦截不存在的键, 其余从缓存读取, 未命中时从数据库加载
+     */
+    private ConfigEntry getEntry(String key) {
+        BloomFilter filter = keyFilter;
+        if (filter != null && !filter.mightContain(key)) {
+            // 布隆过滤器确认数据库中不存在该键
+            return null;
+        }
+        if (isKnownAbsent(key)) {
+            return null;
+        }
+        // 已缓存的键即使到了刷新时间也立即返回当前值, 由后台线程重新加载
+        long version = writeVersion.get();
+        ConfigEntry entry = configCache.get(key);
+        if (entry == null) {
+            markAbsent(key, version);
+        }
+        return entry;
+    }
+
+    /**
+     * 负缓存命中且缓存中没有该键时才视为不存在; 缓存中已有值时负缓存条目已过时, 直接移除
+     */
+    private boolean isKnownAbsent(String key) {
+        if (configNegativeCache.getIfPresent(key) == null) {
+            return false;
+        }
+        if (configCache.asMap().get(key) != null) {
+            configNegativeCache.invalidate(key);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 记录不存在的键; 与markPresent对同一个键原子执行, 读取开始后发生过写入时不记录
+     *
+     * @param version 开始从数据库读取前的writeVersion
+     */
+    private void markAbsent(String key, long version) {
+        configNegativeCache.asMap().compute(key, (k, absent) ->
+                writeVersion.get() == version ? Boolean.TRUE : absent);
+    }
+
+    /**
+     * 键已写入数据库: 加入布隆过滤器并清除负缓存
+     */
+    private void markPresent(String key) {
+        BloomFilter filter = keyFilter;
+        if (filter != null) {
+            filter.put(key);
+        }
+        configNegativeCache.asMap().compute(key, (k, absent) -> {
+            writeVersion.incrementAndGet();
+            return null;
+        });
+    }
+
+    private void markDeleted(String key) {
+        configCache.invalidate(key);
+        writeVersion.incrementAndGet();
+    }
+
+    /**
+     * 加载或后台刷新从数据库读到的值与快照不一致时更新快照, 按远程变更发布事件(数据库已是最新, 不再广播)
+     * 读取期间发生过写入时跳过, 写入本身已更新快照, 读到的值可能已过时
+     *
+     * @param marker 开始读取前的writeVersion
+     */
+    private void applyLoaded(String key, ConfigEntry entry, long marker) {
+        ConfigChangedEvent event;
+        synchronized (refreshLock) {
+            if (writeVersion.get() != marker) {
+                return;
+            }
+            String previous = snapshot.getConfigs().get(key);
+            if (entry != null && !entry.getValue().equals(previous)) {
+                updateSnapshot(current -> current.put(key, entry.getValue()));
+                event = new ConfigChangedEvent(ConfigChangedEvent.Type.UPDATED, key, entry.getValue(), true);
+            } else if (entry == null && previous != null) {
+                updateSnapshot(current -> current.remove(key));
+                event = new ConfigChangedEvent(ConfigChangedEvent.Type.DELETED, key, null, true);
+            } else {
+                return;
+            }
+        }
+        log.debug("Config key: {} changed in database, applied from cache load", key);
+        eventPublisher.publishEvent(event);
+    }
+
+    /**
+     * 只更新值时沿用已缓存条目的过期时间设置
+     */
+    private ConfigEntry withValue(String key, String value) {
+        ConfigEntry current = configCache.getIfPresent(key);
+        return new ConfigEntry(value, current != null ? current.getTtlSeconds() : null);
+    }
+
+    private boolean ttlChanged(String key, Integer ttlSeconds) {
+        ConfigEntry current = configCache.getIfPresent(key);
+        return current != null && !Objects.equals(current.getTtlSeconds(), ttlSeconds);
+    }
+
+    private void advanceWatermark(LocalDateTime updatedAt) {
+        if (updatedAt != null && (watermark == null || updatedAt.isAfter(watermark))) {
+            watermark = updatedAt;
+        }
+    }
+
+    /**
+     * 在当前快照的副本上应用变更, 内容有变化时发布新快照
+     */
+    private synchronized void updateSnapshot(Consumer<TreeMap<String, String>> change) {
+        ConfigSnapshot current = snapshot;
+        TreeMap<String, String> configs = new TreeMap<>(current.getConfigs());
+        change.accept(configs);
+        if (!configs.equals(current.getConfigs())) {
+            snapshot = ConfigSnapshot.build(current.getVersion() + 1, configs, objectMapper);
+        }
+    }
 }
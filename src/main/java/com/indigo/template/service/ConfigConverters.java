@@ -0,0 +1,47 @@
+package com.indigo.template.service;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Config Converters
+ * 配置值转换器常量, 同时作为ConfigEntry解析结果的缓存键
+ */
+public final class ConfigConverters {
+
+    public static final Function<String, String> STRING = String::trim;
+
+    public static final Function<String, Integer> INT = value -> Integer.valueOf(value.trim());
+
+    public static final Function<String, Long> LONG = value -> Long.valueOf(value.trim());
+
+    /**
+     * 只接受true/false(忽略大小写), 其他值视为解析失败
+     */
+    public static final Function<String, Boolean> BOOLEAN = value -> {
+        String trimmed = value.trim();
+        if ("true".equalsIgnoreCase(trimmed)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(trimmed)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + value);
+    };
+
+    /**
+     * 支持 10s、5m 等简写以及ISO-8601格式(PT10S), 纯数字按毫秒解析
+     */
+    public static final Function<String, Duration> DURATION = value -> DurationStyle.detectAndParse(value.trim());
+
+    /**
+     * 支持 10MB、512KB 等格式, 纯数字按字节解析
+     */
+    public static final Function<String, DataSize> DATA_SIZE = value -> DataSize.parse(value.trim());
+
+    private ConfigConverters() {
+    }
+}
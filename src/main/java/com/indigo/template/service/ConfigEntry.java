@@ -0,0 +1,76 @@
+package com.indigo.template.service;
+
+import com.indigo.template.entity.Config;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Config Entry
+ * 配置缓存条目 - 配置值及其单独的缓存过期时间
+ * 按转换器缓存解析结果; 配置值变更时整个条目被替换, 解析结果随之失效
+ */
+@Slf4j
+@Getter
+public final class ConfigEntry {
+
+    /**
+     * 每个条目最多缓存的解析结果数, 超出后仍可解析但不再缓存(防止每次传入新转换器实例导致无限增长)
+     */
+    private static final int MAX_PARSED_VALUES = 16;
+
+    /**
+     * 解析失败或结果为null的占位值, 同样被缓存, 避免重复解析
+     */
+    private static final Object INVALID = new Object();
+
+    private final String value;
+
+    /**
+     * 单独的缓存过期时间(秒), 为空时使用config.cache.ttl
+     */
+    private final Integer ttlSeconds;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Function<String, ?>, Object> parsedValues = new ConcurrentHashMap<>(4);
+
+    public ConfigEntry(String value, Integer ttlSeconds) {
+        this.value = value;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public static ConfigEntry of(Config config) {
+        return new ConfigEntry(config.getConfigValue(), config.getTtlSeconds());
+    }
+
+    /**
+     * 获取按指定转换器解析后的值, 每个转换器只解析一次
+     * 转换器应为常量实例, 以它作为缓存键
+     *
+     * @return 解析结果, 解析失败时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getParsed(Function<String, T> converter) {
+        Object parsed = parsedValues.get(converter);
+        if (parsed == null) {
+            parsed = parse(converter);
+            if (parsedValues.size() < MAX_PARSED_VALUES) {
+                parsedValues.putIfAbsent(converter, parsed);
+            }
+        }
+        return parsed == INVALID ? null : (T) parsed;
+    }
+
+    private Object parse(Function<String, ?> converter) {
+        try {
+            Object parsed = converter.apply(value);
+            return parsed != null ? parsed : INVALID;
+        } catch (RuntimeException e) {
+            log.warn("Cannot parse config value '{}': {}", value, e.getMessage());
+            return INVALID;
+        }
+    }
+}
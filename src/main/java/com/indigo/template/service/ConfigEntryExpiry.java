@@ -0,0 +1,53 @@
+package com.indigo.template.service;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Config Entry Expiry
+ * 配置缓存条目的过期策略
+ * - 基础过期时间优先使用条目的ttlSeconds(配置表ttl_seconds), 否则为默认ttl
+ * - 再乘以[1 - jitter, 1 + jitter)内的随机系数, 避免同一时刻加载的条目在所有节点上同时过期
+ * - 写入和更新时重新计算, 读取不影响过期时间
+ */
+public final class ConfigEntryExpiry implements Expiry<String, ConfigEntry> {
+
+    private final long defaultTtlNanos;
+    private final double jitter;
+
+    /**
+     * @param defaultTtl 条目未设置ttlSeconds时的过期时间
+     * @param jitter     随机抖动比例, 取值[0, 1), 0表示不抖动
+     */
+    public ConfigEntryExpiry(Duration defaultTtl, double jitter) {
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("config.cache.ttl-jitter must be in [0, 1): " + jitter);
+        }
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.jitter = jitter;
+    }
+
+    @Override
+    public long expireAfterCreate(String key, ConfigEntry value, long currentTime) {
+        long baseNanos = value.getTtlSeconds() != null && value.getTtlSeconds() > 0
+                ? TimeUnit.SECONDS.toNanos(value.getTtlSeconds())
+                : defaultTtlNanos;
+        double factor = jitter > 0
+                ? 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter)
+                : 1;
+        return Math.max(1, (long) (baseNanos * factor));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, ConfigEntry value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, ConfigEntry value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -6,7 +6,10 @@ import com.indigo.template.mapper.ConfigMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,6 +21,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ConfigService {
 
+    /**
+     * 每条批量upsert语句包含的行数
+     */
+    private static final int UPSERT_BATCH_SIZE = 200;
+
     private final ConfigMapper configMapper;
 
     /**
@@ -27,6 +35,13 @@ public class ConfigService {
         return configMapper.selectList(new LambdaQueryWrapper<>());
     }
 
+    /**
+     * 获取updated_at不早于指定时间的配置, 包括已逻辑删除的行
+     */
+    public List<Config> getConfigsChangedSince(LocalDateTime since) {
+        return configMapper.selectChangedSince(since);
+    }
+
     /**
      * 根据配置键获取配置
      */
@@ -46,18 +61,35 @@ public class ConfigService {
     }
 
     /**
-     * 保存或更新配置
+     * 批量获取配置, 一次IN查询
+     */
+    public List<Config> getConfigsByKeys(Collection<String> configKeys) {
+        if (configKeys.isEmpty()) {
+            return List.of();
+        }
+        return configMapper.selectList(
+            new LambdaQueryWrapper<Config>()
+                .in(Config::getConfigKey, configKeys)
+        );
+    }
+
+    /**
+     * 保存或更新配置 - 单条upsert语句, 并发写入同一个键不会出现先查后插的竞争
      */
     public void saveOrUpdate(Config config) {
-        Config existingConfig = getConfigByKey(config.getConfigKey());
-        if (existingConfig != null) {
-            config.setId(existingConfig.getId());
-            configMapper.updateById(config);
-            log.info("Updated config: key={}, value={}", config.getConfigKey(), config.getConfigValue());
-        } else {
-            configMapper.insert(config);
-            log.info("Inserted new config: key={}, value={}", config.getConfigKey(), config.getConfigValue());
+        configMapper.upsert(config);
+        log.info("Saved config: key={}, value={}", config.getConfigKey(), config.getConfigValue());
+    }
+
+    /**
+     * 批量保存配置 - 在一个事务中按UPSERT_BATCH_SIZE分批执行多行upsert
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void saveOrUpdateBatch(List<Config> configs) {
+        for (int from = 0; from < configs.size(); from += UPSERT_BATCH_SIZE) {
+            configMapper.upsertBatch(configs.subList(from, Math.min(from + UPSERT_BATCH_SIZE, configs.size())));
         }
+        log.info("Saved {} configs in batch", configs.size());
     }
 
     /**
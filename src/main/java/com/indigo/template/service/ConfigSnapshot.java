@@ -0,0 +1,92 @@
+package com.indigo.template.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indigo.template.common.response.ApiResponse;
+import lombok.Getter;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Config Snapshot
+ * 配置快照 - 不可变, 仅在配置变更时重建
+ * 同时保存预先序列化好的/api/config/all响应体及其ETag, 读取时无需复制或序列化
+ */
+@Getter
+public final class ConfigSnapshot {
+
+    /**
+     * 本节点内单调递增的快照版本号
+     */
+    private final long version;
+
+    /**
+     * 按键排序的只读配置
+     */
+    private final SortedMap<String, String> configs;
+
+    /**
+     * ApiResponse包装后的JSON响应体
+     */
+    private final byte[] allJson;
+
+    /**
+     * 强ETag, 由响应体内容摘要生成, 相同内容在所有节点上ETag相同
+     */
+    private final String etag;
+
+    private ConfigSnapshot(long version, SortedMap<String, String> configs, byte[] allJson, String etag) {
+        this.version = version;
+        this.configs = configs;
+        this.allJson = allJson;
+        this.etag = etag;
+    }
+
+    /**
+     * 构建快照, configs在构建后不得再修改
+     */
+    static ConfigSnapshot build(long version, TreeMap<String, String> configs, ObjectMapper objectMapper) {
+        SortedMap<String, String> readOnly = Collections.unmodifiableSortedMap(configs);
+        try {
+            byte[] allJson = objectMapper.writeValueAsBytes(ApiResponse.success(readOnly));
+            return new ConfigSnapshot(version, readOnly, allJson, "\"" + digest(allJson) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize config snapshot", e);
+        }
+    }
+
+    /**
+     * 获取键以指定前缀开头的配置, 按键排序
+     * 从有序表中定位到前缀起点后顺序读取, 耗时与匹配数量成正比
+     */
+    public Map<String, String> getByPrefix(String prefix) {
+        Map<String, String> matches = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : configs.tailMap(prefix).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            matches.put(entry.getKey(), entry.getValue());
+        }
+        return matches;
+    }
+
+    public int size() {
+        return configs.size();
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
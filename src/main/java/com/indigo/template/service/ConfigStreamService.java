@@ -0,0 +1,472 @@
+package com.indigo.template.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indigo.template.common.exception.TooManyRequestsException;
+import com.indigo.template.event.ConfigChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Config Stream Service
+ * 配置变更的SSE推送服务
+ * - 连接时发送当前快照(snapshot事件), 之后只发送增量(delta事件), 事件ID为 "节点标识:快照版本号"
+ * - 增量由前后两个ConfigSnapshot比较得出, 每次变更只计算和序列化一次, 再写给所有订阅者
+ * - 最近的增量保存在环形缓冲中, 带Last-Event-ID重连时从缓冲补发; 超出缓冲范围或来自其他节点/进程时重新发送快照
+ * 连接由Servlet异步请求保持, 空闲订阅者不占用线程
+ * 分发线程只计算增量并放入每个订阅者的有界队列, 不做网络写入; 写入由发送线程池按订阅者逐个执行,
+ * 队列已满(客户端读取过慢)的订阅者被断开, 客户端带Last-Event-ID重连后补发或重新获取快照, 不影响其他订阅者
+ */
+@Slf4j
+@Service
+public class ConfigStreamService {
+
+    private static final String EVENT_SNAPSHOT = "snapshot";
+    private static final String EVENT_DELTA = "delta";
+    private static final String ID_SEPARATOR = ":";
+
+    private final ConfigCacheService configCacheService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int replaySize;
+    private final int subscriberQueueSize;
+    private final ThreadPoolExecutor dispatcher;
+    private final ThreadPoolExecutor sender;
+    private final Counter laggingDisconnects;
+
+    /**
+     * 本进程的流标识, 快照版本号只在本进程内连续
+     */
+    private final String streamId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 已占用的订阅名额, 在接受连接前预留, 连接结束时释放
+     */
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    /**
+     * 已提交但尚未开始的增量计算, 连续的多次变更合并为一次
+     */
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+
+    // 以下字段只在分发线程中访问
+
+    /**
+     * 已推送给订阅者的快照
+     */
+    private ConfigSnapshot published;
+
+    /**
+     * published对应的snapshot事件数据, 首次有连接时生成
+     */
+    private String publishedSnapshotJson;
+
+    private final Deque<Delta> recentDeltas = new ArrayDeque<>();
+
+    public ConfigStreamService(ConfigCacheService configCacheService,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${config.stream.timeout:30m}") Duration timeout,
+                               @Value("${config.stream.max-subscribers:10000}") int maxSubscribers,
+                               @Value("${config.stream.replay-size:256}") int replaySize,
+                               @Value("${config.stream.subscriber-queue-size:64}") int subscriberQueueSize,
+                               @Value("${config.stream.send-threads:4}") int sendThreads,
+                               @Value("${config.stream.dispatch-queue-capacity:1000}") int dispatchQueueCapacity) {
+        this.configCacheService = configCacheService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.replaySize = replaySize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "config-stream");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // 每个订阅者同一时刻最多有一个发送任务, 队列长度不会超过订阅数上限
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxSubscribers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "config-stream-send-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.sender.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("config.stream.subscribers", reserved, AtomicInteger::get)
+                .description("Open config change streams")
+                .register(meterRegistry);
+        this.laggingDisconnects = Counter.builder("config.stream.lagging.disconnects")
+                .description("Config stream subscribers disconnected because their send queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 新建订阅, 快照或补发的增量由分发线程放入订阅者队列
+     *
+     * @param lastEventId 重连时客户端带回的最后一个事件ID, 可为空
+     * @throws TooManyRequestsException 订阅数达到上限
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (reserved.incrementAndGet() > maxSubscribers) {
+            reserved.decrementAndGet();
+            throw new TooManyRequestsException("Too many config stream subscribers, please retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        // 超时后正常结束, 客户端带Last-Event-ID重连
+        emitter.onTimeout(emitter::complete);
+        try {
+            dispatcher.execute(() -> connect(subscriber, lastEventId));
+        } catch (RejectedExecutionException e) {
+            subscriber.close();
+            throw new TooManyRequestsException("Config stream is busy, please retry later");
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onConfigChanged(ConfigChangedEvent event) {
+        schedulePublish();
+    }
+
+    /**
+     * 定时发送注释行, 防止代理关闭空闲连接, 同时清理已断开的订阅者
+     */
+    @Scheduled(fixedDelayString = "${config.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        StreamEvent heartbeat = StreamEvent.comment("heartbeat");
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(heartbeat);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void schedulePublish() {
+        if (!publishScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                publishScheduled.set(false);
+                publishChanges();
+            });
+        } catch (RejectedExecutionException e) {
+            // 分发队列已满, 下一次变更会从已推送快照重新比较, 不会丢失增量
+            publishScheduled.set(false);
+        }
+    }
+
+    private void connect(Subscriber subscriber, String lastEventId) {
+        publishChanges();
+        Long resumeVersion = parseVersion(lastEventId);
+        List<Delta> replay = resumeVersion != null && canReplayFrom(resumeVersion)
+                ? deltasAfter(resumeVersion)
+                : null;
+        if (replay != null && replay.size() <= subscriberQueueSize) {
+            for (Delta delta : replay) {
+                if (!subscriber.enqueue(StreamEvent.of(EVENT_DELTA, eventId(delta.version), delta.json))) {
+                    return;
+                }
+            }
+        } else {
+            if (publishedSnapshotJson == null) {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("version", published.getVersion());
+                payload.put("configs", published.getConfigs());
+                publishedSnapshotJson = toJson(payload);
+            }
+            if (!subscriber.enqueue(StreamEvent.of(EVENT_SNAPSHOT, eventId(published.getVersion()), publishedSnapshotJson))) {
+                return;
+            }
+        }
+        subscribers.add(subscriber);
+        if (subscriber.closed.get()) {
+            // 连接在加入前已结束
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * 比较当前快照与已推送快照, 有变化时放入所有订阅者的队列
+     */
+    private void publishChanges() {
+        ConfigSnapshot current = configCacheService.getSnapshot();
+        if (published == null) {
+            published = current;
+            return;
+        }
+        if (current == published) {
+            return;
+        }
+
+        Map<String, String> previousConfigs = published.getConfigs();
+        Map<String, String> updated = new TreeMap<>();
+        List<String> deleted = new ArrayList<>();
+        current.getConfigs().forEach((key, value) -> {
+            if (!value.equals(previousConfigs.get(key))) {
+                updated.put(key, value);
+            }
+        });
+        for (String key : previousConfigs.keySet()) {
+            if (!current.getConfigs().containsKey(key)) {
+                deleted.add(key);
+            }
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("fromVersion", published.getVersion());
+        payload.put("version", current.getVersion());
+        payload.put("updated", updated);
+        payload.put("deleted", deleted);
+        Delta delta = new Delta(published.getVersion(), current.getVersion(), toJson(payload));
+
+        published = current;
+        publishedSnapshotJson = null;
+        recentDeltas.addLast(delta);
+        while (recentDeltas.size() > replaySize) {
+            recentDeltas.removeFirst();
+        }
+        StreamEvent event = StreamEvent.of(EVENT_DELTA, eventId(delta.version), delta.json);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(event);
+        }
+        log.debug("Queued config delta {} -> {} for {} subscribers", delta.fromVersion, delta.version, subscribers.size());
+    }
+
+    /**
+     * 缓冲中的增量首尾相接, 只要最早一条的起始版本不晚于客户端版本即可补发
+     */
+    private boolean canReplayFrom(long version) {
+        if (version == published.getVersion()) {
+            return true;
+        }
+        Delta oldest = recentDeltas.peekFirst();
+        return oldest != null && oldest.fromVersion <= version && version < published.getVersion();
+    }
+
+    private List<Delta> deltasAfter(long version) {
+        List<Delta> deltas = new ArrayList<>();
+        for (Delta delta : recentDeltas) {
+            if (delta.version > version) {
+                deltas.add(delta);
+            }
+        }
+        return deltas;
+    }
+
+    private Long parseVersion(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(streamId + ID_SEPARATOR)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(streamId.length() + ID_SEPARATOR.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String eventId(long version) {
+        return streamId + ID_SEPARATOR + version;
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize config stream event", e);
+        }
+    }
+
+    /**
+     * 订阅者及其待发送事件队列
+     * 队列写入不阻塞; 同一时刻最多一个发送线程在写该订阅者的连接, 写入阻塞只影响它自己
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> pending = new ArrayBlockingQueue<>(subscriberQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        /**
+         * 因读取过慢被断开, 由发送线程结束连接
+         */
+        private volatile boolean evicted;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return 是否已放入队列; 队列已满时断开该订阅者并返回false
+         */
+        boolean enqueue(StreamEvent event) {
+            if (closed.get()) {
+                return false;
+            }
+            if (!pending.offer(event)) {
+                evict();
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        /**
+         * 释放订阅名额, 可重复调用
+         */
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                pending.clear();
+                reserved.decrementAndGet();
+            }
+        }
+
+        private void evict() {
+            if (!closed.get()) {
+                laggingDisconnects.increment();
+                log.debug("Disconnecting lagging config stream subscriber, {} events pending", pending.size());
+            }
+            evicted = true;
+            close();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    emitter.send(event.toBuilder());
+                }
+                if (evicted && completed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            } catch (Exception e) {
+                // 客户端已断开或连接已结束, 由容器回调完成清理
+                close();
+                log.debug("Dropped config stream subscriber: {}", e.getMessage());
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // 结束前又有新事件, 或断开发生在本轮检查之后
+            if (evicted ? !completed.get() : !closed.get() && !pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * 待发送的事件, 数据只序列化一次, 由所有订阅者共享
+     */
+    private static final class StreamEvent {
+
+        private final String name;
+        private final String id;
+        private final String data;
+        private final String comment;
+
+        private StreamEvent(String name, String id, String data, String comment) {
+            this.name = name;
+            this.id = id;
+            this.data = data;
+            this.comment = comment;
+        }
+
+        static StreamEvent of(String name, String id, String data) {
+            return new StreamEvent(name, id, data, null);
+        }
+
+        static StreamEvent comment(String comment) {
+            return new StreamEvent(null, null, null, comment);
+        }
+
+        SseEmitter.SseEventBuilder toBuilder() {
+            if (comment != null) {
+                return SseEmitter.event().comment(comment);
+            }
+            return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * 已发送的增量: fromVersion之后到version为止的变更
+     */
+    private static final class Delta {
+
+        private final long fromVersion;
+        private final long version;
+        private final String json;
+
+        private Delta(long fromVersion, long version, String json) {
+            this.fromVersion = fromVersion;
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.indigo.template.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indigo.template.event.ConfigChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Config Sync Service
+ * 配置缓存跨节点同步服务
+ * - 本地变更写库后通过Redis频道广播, 消息携带全局递增版本号(config:version)
+ * - 版本号递增与发布在同一个Lua脚本中完成, 因此消息到达顺序与版本号顺序一致
+ * - 收到的版本号不连续(消息丢失、订阅断开)时全量重新同步; 定时比对版本号以发现丢失的最后一条消息
+ * 数据库写入先于版本号递增, 所以按版本号v重新同步时, 数据库已包含v及之前的全部变更
+ */
+@Slf4j
+@Service
+public class ConfigSyncService implements MessageListener {
+
+    private static final String VERSION_KEY = "config:version";
+    private static final String VERSION_SEPARATOR = ":";
+
+    /**
+     * 递增版本号并发布 "版本号:消息体", 返回新版本号
+     */
+    private static final RedisScript<Long> PUBLISH_SCRIPT = RedisScript.of(
+            "local version = redis.call('INCR', KEYS[1]) " +
+            "redis.call('PUBLISH', ARGV[1], version .. ':' .. ARGV[2]) " +
+            "return version", Long.class);
+
+    private final ConfigCacheService configCacheService;
+    private final RedisService redisService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final boolean incrementalRefreshEnabled;
+    private final Duration incrementalRefreshOverlap;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 本节点已应用到的版本号
+     */
+    private long appliedVersion;
+
+    public ConfigSyncService(ConfigCacheService configCacheService,
+                             RedisService redisService,
+                             StringRedisTemplate stringRedisTemplate,
+                             RedisMessageListenerContainer redisMessageListenerContainer,
+                             ObjectMapper objectMapper,
+                             @Value("${config.sync.channel:config:changes}") String channel,
+                             @Value("${config.refresh.incremental.enabled:true}") boolean incrementalRefreshEnabled,
+                             @Value("${config.refresh.incremental.overlap:5s}") Duration incrementalRefreshOverlap) {
+        this.configCacheService = configCacheService;
+        this.redisService = redisService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisMessageListenerContainer = redisMessageListenerContainer;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.incrementalRefreshEnabled = incrementalRefreshEnabled;
+        this.incrementalRefreshOverlap = incrementalRefreshOverlap;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * 启动时加载配置到缓存
+     * 先记录当前版本号再读库, 加载期间其他节点的变更会以后续版本号到达
+     */
+    public synchronized void initialize() {
+        try {
+            appliedVersion = currentVersion();
+        } catch (Exception e) {
+            // 定时版本检查会在Redis可用后触发全量同步
+            log.warn("Failed to read config version on startup: {}", e.getMessage());
+        }
+        configCacheService.loadConfigsToCache();
+    }
+
+    /**
+     * 广播本节点产生的配置变更
+     */
+    @EventListener
+    public void onConfigChanged(ConfigChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        ConfigChangeMessage message = new ConfigChangeMessage();
+        message.setNodeId(nodeId);
+        message.setType(event.getType());
+        message.setKey(event.getKey());
+        message.setValue(event.getValue());
+        try {
+            Long version = redisService.execute(PUBLISH_SCRIPT, List.of(VERSION_KEY),
+                    channel, objectMapper.writeValueAsString(message));
+            log.debug("Broadcast config change: type={}, key={}, version={}", event.getType(), event.getKey(), version);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize config change for key: {}", event.getKey(), e);
+        } catch (Exception e) {
+            // 其他节点无法收到本次变更, 依赖缓存过期或手动刷新
+            log.error("Failed to broadcast config change for key: {}", event.getKey(), e);
+        }
+    }
+
+    /**
+     * 处理其他节点(以及本节点自身)广播的变更
+     */
+    @Override
+    public synchronized void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(VERSION_SEPARATOR);
+        if (separator < 0) {
+            log.warn("Ignored malformed config change message: {}", body);
+            return;
+        }
+        long version = Long.parseLong(body.substring(0, separator));
+        if (version <= appliedVersion) {
+            // 已被之前的全量同步覆盖
+            return;
+        }
+        if (version > appliedVersion + 1) {
+            log.warn("Config change versions {} to {} were missed, resyncing", appliedVersion + 1, version - 1);
+            resync(version);
+            return;
+        }
+
+        ConfigChangeMessage change;
+        try {
+            change = objectMapper.readValue(body.substring(separator + 1), ConfigChangeMessage.class);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse config change version {}, resyncing", version, e);
+            resync(version);
+            return;
+        }
+        appliedVersion = version;
+        if (nodeId.equals(change.getNodeId())) {
+            // 本节点的变更已直接写入本地缓存
+            return;
+        }
+        switch (change.getType()) {
+            case UPDATED -> configCacheService.applyRemoteUpdate(change.getKey(), change.getValue());
+            case DELETED -> configCacheService.applyRemoteDelete(change.getKey());
+            case REFRESHED -> configCacheService.resyncFromDatabase();
+        }
+    }
+
+    /**
+     * 定时比对全局版本号, 发现丢失的消息(包括最后一条)后全量同步
+     */
+    @Scheduled(fixedDelayString = "${config.sync.check-interval-ms:30000}")
+    public synchronized void checkVersion() {
+        long current;
+        try {
+            current = currentVersion();
+        } catch (Exception e) {
+            log.warn("Failed to check config version: {}", e.getMessage());
+            return;
+        }
+        if (current > appliedVersion) {
+            log.warn("Config version {} is behind {}, resyncing", appliedVersion, current);
+            resync(current);
+        } else if (current < appliedVersion) {
+            // Redis中的版本号被重置
+            log.warn("Config version was reset from {} to {}, resyncing", appliedVersion, current);
+            resync(current);
+        }
+    }
+
+    /**
+     * 定时增量刷新, 兜底处理绕过本服务直接写库的变更
+     */
+    @Scheduled(fixedDelayString = "${config.refresh.incremental.interval-ms:10000}")
+    public void refreshIncrementally() {
+        if (!incrementalRefreshEnabled) {
+            return;
+        }
+        try {
+            configCacheService.refreshIncrementally(incrementalRefreshOverlap);
+        } catch (Exception e) {
+            log.warn("Incremental config refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void resync(long version) {
+        try {
+            configCacheService.resyncFromDatabase();
+            appliedVersion = version;
+        } catch (Exception e) {
+            // 保持旧版本号, 下次版本检查时重试
+            log.error("Failed to resync configs from database", e);
+        }
+    }
+
+    private long currentVersion() {
+        String version = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+        return version != null ? Long.parseLong(version) : 0L;
+    }
+
+    /**
+     * 配置变更消息体
+     */
+    @Data
+    @NoArgsConstructor
+    public static class ConfigChangeMessage {
+        private String nodeId;
+        private ConfigChangedEvent.Type type;
+        private String key;
+        private String value;
+    }
+
+}
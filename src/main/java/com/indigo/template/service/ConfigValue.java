@@ -0,0 +1,85 @@
+package com.indigo.template.service;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Config Value
+ * 绑定到单个配置键的类型化值, 读取只是一次volatile读
+ * 原始值与解析结果作为不可变的一对整体替换, 按配置快照版本号只前进不后退:
+ * 首次读取与LiveConfigBinder的刷新并发时, 较新版本的结果总是保留
+ * 不再需要时调用close()解除绑定, 之后不再随配置变更更新
+ */
+public final class ConfigValue<T> implements AutoCloseable {
+
+    private final String key;
+    private final Function<String, T> parser;
+    private final LiveConfigBinder binder;
+    private final AtomicReference<State<T>> state = new AtomicReference<>();
+
+    ConfigValue(String key, Function<String, T> parser, LiveConfigBinder binder) {
+        this.key = key;
+        this.parser = parser;
+        this.binder = binder;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public T get() {
+        State<T> current = state.get();
+        if (current == null) {
+            binder.resolve(this);
+            current = state.get();
+        }
+        return current.parsed;
+    }
+
+    /**
+     * 解除绑定
+     */
+    @Override
+    public void close() {
+        binder.unbind(this);
+    }
+
+    /**
+     * 应用配置快照version中的原始值, 不早于当前版本的更新被忽略; 原始值未变时沿用已解析的结果
+     *
+     * @param raw 配置不存在时为null
+     */
+    void update(long version, String raw) {
+        while (true) {
+            State<T> current = state.get();
+            if (current != null && current.version >= version) {
+                return;
+            }
+            State<T> next = current != null && Objects.equals(current.raw, raw)
+                    ? new State<>(version, raw, current.parsed)
+                    : new State<>(version, raw, parser.apply(raw));
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + get();
+    }
+
+    private static final class State<T> {
+
+        private final long version;
+        private final String raw;
+        private final T parsed;
+
+        private State(long version, String raw, T parsed) {
+            this.version = version;
+            this.raw = raw;
+            this.parsed = parsed;
+        }
+    }
+}
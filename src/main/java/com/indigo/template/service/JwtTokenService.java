@@ -0,0 +1,123 @@
+package com.indigo.template.service;
+
+import com.indigo.template.common.exception.BizException;
+import com.indigo.template.common.response.ErrorCode;
+import com.indigo.template.dto.response.JwtResponse;
+import com.indigo.template.security.jwt.JwtTokenUtil;
+import com.indigo.template.security.jwt.VerifiedToken;
+import com.indigo.template.security.userdetails.AuthenticatedUser;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JWT Token Service
+ * Issues access/refresh token pairs and exchanges refresh tokens without password re-authentication.
+ * Every login starts a refresh token family in Redis holding the ID of its only valid refresh token;
+ * each exchange rotates that ID, and presenting an already rotated token revokes the whole family.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JwtTokenService {
+
+    private static final String FAMILY_KEY_PREFIX = "auth:refresh:family:";
+
+    private static final RedisScript<Long> ISSUE_SCRIPT = RedisScript.of(
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) " +
+            "return 1", Long.class);
+
+    /**
+     * Returns 1 when rotated, 0 when a rotated token was reused (family revoked), -1 when the family is gone
+     */
+    private static final RedisScript<Long> ROTATE_SCRIPT = RedisScript.of(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if not current then return -1 end " +
+            "if current ~= ARGV[1] then redis.call('DEL', KEYS[1]) return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+            "return 1", Long.class);
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final RedisService redisService;
+    private final UserService userService;
+
+    /**
+     * Issue tokens for a freshly authenticated user, starting a new refresh token family
+     */
+    public JwtResponse issueTokens(AuthenticatedUser principal) {
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        redisService.execute(ISSUE_SCRIPT, List.of(FAMILY_KEY_PREFIX + familyId),
+                tokenId, String.valueOf(jwtTokenUtil.getRefreshExpiration()));
+
+        return buildResponse(principal, jwtTokenUtil.generateRefreshToken(principal.getUsername(), familyId, tokenId));
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a rotated refresh token
+     */
+    public JwtResponse refreshTokens(String refreshToken) {
+        VerifiedToken verifiedToken = verifyRefreshToken(refreshToken);
+        String familyId = verifiedToken.getFamilyId();
+        String familyKey = FAMILY_KEY_PREFIX + familyId;
+
+        String newTokenId = UUID.randomUUID().toString();
+        Long result = redisService.execute(ROTATE_SCRIPT, List.of(familyKey),
+                verifiedToken.getTokenId(), newTokenId, String.valueOf(jwtTokenUtil.getRefreshExpiration()));
+        if (result == null || result < 0) {
+            throw new BizException(ErrorCode.TOKEN_INVALID, "Refresh token has been revoked");
+        }
+        if (result == 0) {
+            log.warn("Refresh token reuse detected for user: {}, revoked token family: {}",
+                    verifiedToken.getUsername(), familyId);
+            throw new BizException(ErrorCode.TOKEN_INVALID, "Refresh token has already been used");
+        }
+
+        // Reload the user so disabled users and changed roles are honoured, no password check involved
+        AuthenticatedUser principal;
+        try {
+            principal = (AuthenticatedUser) userService.loadUserByUsername(verifiedToken.getUsername());
+        } catch (UsernameNotFoundException e) {
+            redisService.delete(familyKey);
+            throw new BizException(ErrorCode.TOKEN_INVALID, "User is no longer active");
+        }
+
+        return buildResponse(principal, jwtTokenUtil.generateRefreshToken(principal.getUsername(), familyId, newTokenId));
+    }
+
+    private VerifiedToken verifyRefreshToken(String refreshToken) {
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtTokenUtil.verifyToken(refreshToken);
+        } catch (ExpiredJwtException e) {
+            throw new BizException(ErrorCode.TOKEN_EXPIRED);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BizException(ErrorCode.TOKEN_INVALID);
+        }
+
+        if (!verifiedToken.isRefreshToken()
+                || verifiedToken.getFamilyId() == null
+                || verifiedToken.getTokenId() == null) {
+            throw new BizException(ErrorCode.TOKEN_INVALID, "Not a refresh token");
+        }
+        return verifiedToken;
+    }
+
+    private JwtResponse buildResponse(AuthenticatedUser principal, String refreshToken) {
+        return JwtResponse.builder()
+                .accessToken(jwtTokenUtil.generateToken(principal, principal.getAuthorityVersion()))
+                .refreshToken(refreshToken)
+                .tokenType("Bearer")
+                .expiresIn(jwtTokenUtil.getExpirationTime())
+                .userInfo(userService.buildUserInfoDto(principal))
+                .build();
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.indigo.template.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Live Config
+ * 标注在ConfigValue字段上, 由LiveConfigBinder注入随配置变更自动更新的值
+ * 支持的类型: String、Integer、Long、Boolean、Duration、DataSize、JsonNode
+ *
+ * <pre>
+ * &#64;LiveConfig(key = "upload.max-size", defaultValue = "10MB")
+ * private ConfigValue&lt;DataSize&gt; maxUploadSize;
+ * </pre>
+ */
+@Documented
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LiveConfig {
+
+    /**
+     * 配置键
+     */
+    String key();
+
+    /**
+     * 配置不存在或解析失败时使用的默认值, 按字段类型解析; 为空表示null
+     */
+    String defaultValue() default "";
+}
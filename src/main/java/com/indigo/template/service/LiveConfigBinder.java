@@ -0,0 +1,172 @@
+package com.indigo.template.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.indigo.template.event.ConfigChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live Config Binder
+ * 为标注了@LiveConfig的ConfigValue字段注入实例, 每次配置变更事件(本地、远程、全量刷新、缓存加载)后
+ * 按最新的配置快照更新所有绑定值, 快照是所有变更路径的汇合点, 事件只作为触发信号
+ * 通过bind()创建的值由调用方close()解除绑定; 字段注入的值在bean销毁时解除
+ * ConfigCacheService延迟获取, 避免后置处理器提前初始化配置缓存及其依赖
+ */
+@Slf4j
+@Component
+public class LiveConfigBinder implements DestructionAwareBeanPostProcessor {
+
+    private static final Set<Class<?>> SUPPORTED_TYPES = Set.of(String.class, Integer.class, Long.class,
+            Boolean.class, Duration.class, DataSize.class, JsonNode.class);
+
+    private final ObjectProvider<ConfigCacheService> configCacheService;
+    private final Map<String, Set<ConfigValue<?>>> bindings = new ConcurrentHashMap<>();
+
+    public LiveConfigBinder(ObjectProvider<ConfigCacheService> configCacheService) {
+        this.configCacheService = configCacheService;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        ReflectionUtils.doWithFields(bean.getClass(),
+                field -> bind(bean, beanName, field),
+                field -> field.isAnnotationPresent(LiveConfig.class));
+        return bean;
+    }
+
+    @Override
+    public boolean requiresDestruction(Object bean) {
+        boolean[] found = new boolean[1];
+        ReflectionUtils.doWithFields(bean.getClass(),
+                field -> found[0] = true,
+                field -> field.isAnnotationPresent(LiveConfig.class));
+        return found[0];
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+        ReflectionUtils.doWithFields(bean.getClass(), field -> {
+            ReflectionUtils.makeAccessible(field);
+            if (ReflectionUtils.getField(field, bean) instanceof ConfigValue<?> value) {
+                value.close();
+            }
+        }, field -> field.isAnnotationPresent(LiveConfig.class));
+    }
+
+    /**
+     * 创建并注册一个绑定到配置键的值, 用于无法使用字段注入的场景
+     * 不再使用时调用返回值的close()解除绑定
+     */
+    public <T> ConfigValue<T> bind(String key, Class<T> type, T defaultValue) {
+        ConfigValue<T> value = new ConfigValue<>(key, raw -> {
+            T parsed = parse(raw, type);
+            return parsed != null ? parsed : defaultValue;
+        }, this);
+        register(value);
+        return value;
+    }
+
+    @EventListener
+    public void onConfigChanged(ConfigChangedEvent event) {
+        if (bindings.isEmpty()) {
+            return;
+        }
+        ConfigSnapshot snapshot = configCacheService.getObject().getSnapshot();
+        bindings.forEach((key, values) -> {
+            String raw = snapshot.getConfigs().get(key);
+            values.forEach(value -> refresh(value, snapshot.getVersion(), raw));
+        });
+    }
+
+    /**
+     * 首次读取: 优先使用快照中的值; 快照中没有时经配置缓存读取(可能从数据库加载),
+     * 加载结果写入快照后触发的事件会以更新的版本号再次刷新
+     */
+    void resolve(ConfigValue<?> value) {
+        ConfigCacheService service = configCacheService.getObject();
+        ConfigSnapshot snapshot = service.getSnapshot();
+        String raw = snapshot.getConfigs().get(value.getKey());
+        if (raw == null) {
+            raw = service.getConfigValue(value.getKey());
+        }
+        value.update(snapshot.getVersion(), raw);
+    }
+
+    void unbind(ConfigValue<?> value) {
+        bindings.computeIfPresent(value.getKey(), (key, values) -> {
+            values.remove(value);
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    private void bind(Object bean, String beanName, Field field) {
+        LiveConfig annotation = field.getAnnotation(LiveConfig.class);
+        if (field.getType() != ConfigValue.class) {
+            throw new BeanInitializationException("@LiveConfig field " + beanName + "." + field.getName()
+                    + " must be of type ConfigValue");
+        }
+        Class<?> type = ResolvableType.forField(field).getGeneric(0).resolve();
+        if (type == null || !SUPPORTED_TYPES.contains(type)) {
+            throw new BeanInitializationException("@LiveConfig field " + beanName + "." + field.getName()
+                    + " has unsupported value type: " + type);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, bean, bindField(annotation, type));
+        log.debug("Bound live config '{}' to {}.{}", annotation.key(), beanName, field.getName());
+    }
+
+    /**
+     * 注解中的默认值在每次解析时转换, 只在变更事件时发生, 不影响读取
+     */
+    private <T> ConfigValue<T> bindField(LiveConfig annotation, Class<T> type) {
+        String defaultValue = annotation.defaultValue();
+        ConfigValue<T> value = new ConfigValue<>(annotation.key(), raw -> {
+            T parsed = parse(raw, type);
+            return parsed != null || defaultValue.isEmpty()
+                    ? parsed
+                    : configCacheService.getObject().converterFor(type).apply(defaultValue);
+        }, this);
+        register(value);
+        return value;
+    }
+
+    private void register(ConfigValue<?> value) {
+        bindings.compute(value.getKey(), (key, values) -> {
+            Set<ConfigValue<?>> registered = values != null ? values : ConcurrentHashMap.newKeySet();
+            registered.add(value);
+            return registered;
+        });
+    }
+
+    /**
+     * 配置不存在或解析失败时返回null, 解析失败的日志由ConfigEntry输出
+     */
+    private <T> T parse(String raw, Class<T> type) {
+        return raw != null
+                ? new ConfigEntry(raw, null).getParsed(configCacheService.getObject().converterFor(type))
+                : null;
+    }
+
+    private void refresh(ConfigValue<?> value, long version, String raw) {
+        try {
+            value.update(version, raw);
+        } catch (Exception e) {
+            // 保留旧值, 下次变更事件时重试
+            log.warn("Failed to refresh live config '{}': {}", value.getKey(), e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.indigo.template.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
@@ -188,4 +190,17 @@ public class RedisService {
         return redisTemplate.opsForList().size(key);
     }
 
+    // ========== Script Operations ==========
+
+    /**
+     * Execute Lua script atomically
+     * Arguments are passed as plain strings, not JSON, so values written by a script
+     * should only be read and compared by scripts
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(RedisScript<T> script, List<String> keys, String... args) {
+        return redisTemplate.execute(script, RedisSerializer.string(),
+                (RedisSerializer<T>) RedisSerializer.string(), keys, (Object[]) args);
+    }
+
 }
@@ -0,0 +1,137 @@
+package com.indigo.template.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.indigo.template.entity.Role;
+import com.indigo.template.mapper.RoleMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Role Catalog
+ * In-memory snapshot of all active roles, indexed by role ID.
+ * The role table is tiny and rarely changes, so authentication resolves role codes and
+ * shared GrantedAuthority instances from here instead of reading the role table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoleCatalog {
+
+    private final RoleMapper roleMapper;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Reload all active roles and atomically swap in the new snapshot
+     */
+    public synchronized void refresh() {
+        Snapshot current = loadSnapshot();
+        this.snapshot = current;
+        log.info("Loaded {} active roles into role catalog", current.roleCount);
+    }
+
+    /**
+     * Reload the snapshot if the role table changed since the last load
+     */
+    @Scheduled(fixedDelayString = "${security.role-catalog.check-interval-ms:60000}")
+    public void refreshIfChanged() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            return;
+        }
+        LocalDateTime lastUpdatedAt = roleMapper.selectMaxUpdatedAt();
+        long totalCount = roleMapper.selectCount(new LambdaQueryWrapper<>());
+        if (!Objects.equals(lastUpdatedAt, current.lastUpdatedAt) || totalCount != current.totalCount) {
+            log.info("Role table changed, refreshing role catalog");
+            refresh();
+        }
+    }
+
+    /**
+     * Resolve authorities for role IDs, skipping unknown or inactive roles
+     */
+    public List<GrantedAuthority> getAuthorities(Collection<Long> roleIds) {
+        Snapshot current = getSnapshot();
+        List<GrantedAuthority> authorities = new ArrayList<>(roleIds.size());
+        for (Long roleId : roleIds) {
+            GrantedAuthority authority = current.authority(roleId);
+            if (authority != null) {
+                authorities.add(authority);
+            }
+        }
+        return authorities;
+    }
+
+    /**
+     * Resolve role codes for role IDs, skipping unknown or inactive roles
+     */
+    public List<String> getRoleCodes(Collection<Long> roleIds) {
+        List<GrantedAuthority> authorities = getAuthorities(roleIds);
+        List<String> roleCodes = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            roleCodes.add(authority.getAuthority());
+        }
+        return roleCodes;
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (this.snapshot == null) {
+                    refresh();
+                }
+                current = this.snapshot;
+            }
+        }
+        return current;
+    }
+
+    private Snapshot loadSnapshot() {
+        // Read the change marker first so a concurrent change triggers another refresh
+        LocalDateTime lastUpdatedAt = roleMapper.selectMaxUpdatedAt();
+        long totalCount = roleMapper.selectCount(new LambdaQueryWrapper<>());
+        List<Role> roles = roleMapper.selectList(new LambdaQueryWrapper<Role>()
+                .eq(Role::getStatus, 1));
+        return new Snapshot(roles, lastUpdatedAt, totalCount);
+    }
+
+    /**
+     * Immutable role snapshot, indexed by role ID
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, GrantedAuthority> authoritiesById;
+        private final int roleCount;
+        private final LocalDateTime lastUpdatedAt;
+        private final long totalCount;
+
+        private Snapshot(List<Role> roles, LocalDateTime lastUpdatedAt, long totalCount) {
+            Map<Long, GrantedAuthority> authorities = new HashMap<>(roles.size() * 2);
+            for (Role role : roles) {
+                authorities.put(role.getId(), new SimpleGrantedAuthority(role.getRoleCode()));
+            }
+            this.authoritiesById = Map.copyOf(authorities);
+            this.roleCount = roles.size();
+            this.lastUpdatedAt = lastUpdatedAt;
+            this.totalCount = totalCount;
+        }
+
+        private GrantedAuthority authority(Long roleId) {
+            return roleId != null ? authoritiesById.get(roleId) : null;
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.indigo.template.service;
+
+import com.indigo.template.dto.response.UserSessionDto;
+import com.indigo.template.security.session.NearCacheSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Session Index Service
+ * Keeps a per-user sorted set of session IDs (score: login time) next to the Redis session store,
+ * so a user's sessions can be listed or revoked with a single script call instead of a key scan.
+ * Members whose session key no longer exists are removed lazily when the index is written or read;
+ * members younger than the grace period are kept, their session may not be committed to Redis yet.
+ */
+@Slf4j
+@Service
+public class SessionIndexService {
+
+    private static final String INDEX_KEY_PREFIX = "auth:user-sessions:";
+
+    private static final String PRUNE =
+            "local stale = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1]) " +
+            "for _, id in ipairs(stale) do " +
+            "  if redis.call('EXISTS', ARGV[2] .. id) == 0 then redis.call('ZREM', KEYS[1], id) end " +
+            "end ";
+
+    private static final RedisScript<Long> REGISTER_SCRIPT = RedisScript.of(
+            PRUNE +
+            "redis.call('ZADD', KEYS[1], ARGV[3], ARGV[4]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[5]) " +
+            "return 1", Long.class);
+
+    private static final RedisScript<Long> UNREGISTER_SCRIPT = RedisScript.of(
+            "return redis.call('ZREM', KEYS[1], ARGV[1])", Long.class);
+
+    /**
+     * Returns session IDs and login times as a flat list: id, score, id, score...
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LIST_SCRIPT = RedisScript.of(
+            PRUNE +
+            "return redis.call('ZRANGE', KEYS[1], 0, -1, 'WITHSCORES')", List.class);
+
+    /**
+     * Deletes every indexed session and the index itself, returns the deleted session IDs
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REVOKE_SCRIPT = RedisScript.of(
+            "local ids = redis.call('ZRANGE', KEYS[1], 0, -1) " +
+            "for _, id in ipairs(ids) do redis.call('DEL', ARGV[1] .. id) end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return ids", List.class);
+
+    private final RedisService redisService;
+    private final ObjectProvider<NearCacheSessionRepository<?>> nearCacheSessionRepository;
+    private final String sessionKeyPrefix;
+    private final Duration indexTtl;
+    private final Duration pruneGracePeriod;
+
+    public SessionIndexService(RedisService redisService,
+                               ObjectProvider<NearCacheSessionRepository<?>> nearCacheSessionRepository,
+                               @Value("${spring.session.redis.namespace:spring:session}") String namespace,
+                               @Value("${security.session.index.ttl:7d}") Duration indexTtl,
+                               @Value("${security.session.index.prune-grace-period:1m}") Duration pruneGracePeriod) {
+        this.redisService = redisService;
+        this.nearCacheSessionRepository = nearCacheSessionRepository;
+        this.sessionKeyPrefix = namespace + ":sessions:";
+        this.indexTtl = indexTtl;
+        this.pruneGracePeriod = pruneGracePeriod;
+    }
+
+    /**
+     * Add a freshly logged-in session to the user's index
+     */
+    public void register(String username, String sessionId) {
+        long now = System.currentTimeMillis();
+        redisService.execute(REGISTER_SCRIPT, List.of(indexKey(username)),
+                pruneBefore(now), sessionKeyPrefix, String.valueOf(now), sessionId,
+                String.valueOf(indexTtl.toMillis()));
+    }
+
+    /**
+     * Remove a logged-out session from the user's index
+     */
+    public void unregister(String username, String sessionId) {
+        redisService.execute(UNREGISTER_SCRIPT, List.of(indexKey(username)), sessionId);
+    }
+
+    /**
+     * List live sessions of a user, oldest login first
+     */
+    public List<UserSessionDto> listSessions(String username) {
+        List<?> result = redisService.execute(LIST_SCRIPT, List.of(indexKey(username)),
+                pruneBefore(System.currentTimeMillis()), sessionKeyPrefix);
+        List<UserSessionDto> sessions = new ArrayList<>();
+        if (result == null) {
+            return sessions;
+        }
+        for (int i = 0; i + 1 < result.size(); i += 2) {
+            long loginMillis = (long) Double.parseDouble(String.valueOf(result.get(i + 1)));
+            sessions.add(UserSessionDto.builder()
+                    .sessionId(String.valueOf(result.get(i)))
+                    .loginTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(loginMillis), ZoneId.systemDefault()))
+                    .build());
+        }
+        return sessions;
+    }
+
+    /**
+     * Delete every session of a user, returns the number of revoked sessions
+     */
+    public int revokeAll(String username) {
+        List<?> result = redisService.execute(REVOKE_SCRIPT, List.of(indexKey(username)), sessionKeyPrefix);
+        List<String> sessionIds = result == null
+                ? List.of()
+                : result.stream().map(String::valueOf).toList();
+        nearCacheSessionRepository.ifAvailable(repository -> repository.evict(sessionIds));
+        log.info("Revoked {} sessions of user: {}", sessionIds.size(), username);
+        return sessionIds.size();
+    }
+
+    private String pruneBefore(long now) {
+        return "(" + (now - pruneGracePeriod.toMillis());
+    }
+
+    private static String indexKey(String username) {
+        return INDEX_KEY_PREFIX + username;
+    }
+
+}
@@ -1,24 +1,32 @@
 package com.indigo.template.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.indigo.template.common.exception.BizException;
+import com.indigo.template.common.response.ErrorCode;
 import com.indigo.template.dto.response.UserInfoDto;
 import com.indigo.template.entity.Role;
 import com.indigo.template.entity.User;
-import com.indigo.template.entity.UserRole;
+import com.indigo.template.entity.UserRoleCode;
+import com.indigo.template.event.UserChangedEvent;
 import com.indigo.template.mapper.RoleMapper;
 import com.indigo.template.mapper.UserMapper;
 import com.indigo.template.mapper.UserRoleMapper;
+import com.indigo.template.security.userdetails.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -27,11 +35,15 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserMapper userMapper;
     private final RoleMapper roleMapper;
     private final UserRoleMapper userRoleMapper;
+    private final RoleCatalog roleCatalog;
+    private final AuthorityVersionService authorityVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SessionIndexService sessionIndexService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -44,16 +56,30 @@ public class UserService implements UserDetailsService {
             throw new UsernameNotFoundException("User not found: " + username);
         }
 
-        // Get user roles
-        List<Role> roles = getUserRoles(user.getId());
-        List<GrantedAuthority> authorities = roles.stream()
-                .map(role -> new SimpleGrantedAuthority(role.getRoleCode()))
-                .collect(Collectors.toList());
+        // Resolve shared authorities from the role catalog, only user_role is queried
+        List<GrantedAuthority> authorities = roleCatalog.getAuthorities(
+                userRoleMapper.selectRoleIdsByUserId(user.getId()));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(authorities)
+        return new AuthenticatedUser(user, authorities);
+    }
+
+    /**
+     * Replace a stored password hash, e.g. after the BCrypt work factor changed.
+     * Only applied if the stored hash is still the one the caller saw,
+     * so a concurrent password change is never overwritten.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        int updated = userMapper.update(null, new LambdaUpdateWrapper<User>()
+                .set(User::getPassword, newPassword)
+                .eq(User::getUsername, user.getUsername())
+                .eq(User::getPassword, user.getPassword()));
+        if (updated == 0) {
+            log.info("Skipped password update for user: {}, stored hash changed concurrently", user.getUsername());
+            return user;
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
                 .build();
     }
 
@@ -66,32 +92,94 @@ public class UserService implements UserDetailsService {
     }
 
     /**
-     * Get user roles
+     * Get active user roles
      */
     public List<Role> getUserRoles(Long userId) {
-        List<UserRole> userRoles = userRoleMapper.selectList(new LambdaQueryWrapper<UserRole>()
-                .eq(UserRole::getUserId, userId));
+        return roleMapper.selectActiveRolesByUserId(userId);
+    }
 
-        if (userRoles.isEmpty()) {
-            return Collections.emptyList();
+    /**
+     * Get active role codes of a user
+     */
+    public List<String> getUserRoleCodes(Long userId) {
+        return roleMapper.selectActiveRoleCodesByUserId(userId);
+    }
+
+    /**
+     * Get active role codes of many users in one query, keyed by user ID
+     */
+    public Map<Long, List<String>> getUserRoleCodes(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
         }
+        return roleMapper.selectActiveRoleCodesByUserIds(userIds).stream()
+                .collect(Collectors.groupingBy(UserRoleCode::getUserId,
+                        Collectors.mapping(UserRoleCode::getRoleCode, Collectors.toList())));
+    }
 
-        List<Long> roleIds = userRoles.stream()
-                .map(UserRole::getRoleId)
-                .collect(Collectors.toList());
+    /**
+     * Update user status (0:disabled, 1:active)
+     */
+    public void updateStatus(String username, Integer status) {
+        int updated = userMapper.update(null, new LambdaUpdateWrapper<User>()
+                .set(User::getStatus, status)
+                .eq(User::getUsername, username));
+        if (updated == 0) {
+            throw new BizException(ErrorCode.USER_NOT_FOUND);
+        }
+        log.info("Updated status of user: {} to {}", username, status);
+        notifyUserChanged(username);
+        if (Integer.valueOf(0).equals(status)) {
+            sessionIndexService.revokeAll(username);
+        }
+    }
 
-        return roleMapper.selectBatchIds(roleIds);
+    /**
+     * Invalidate cached details, authentications and issued access tokens of a user.
+     * Call after changing a user's status or roles; UserSyncService relays the change to other nodes.
+     */
+    public void notifyUserChanged(String username) {
+        authorityVersionService.incrementAuthorityVersion(username);
+        eventPublisher.publishEvent(new UserChangedEvent(username, false));
     }
 
     /**
      * Build UserInfoDto from User entity
      */
     public UserInfoDto buildUserInfoDto(User user) {
-        List<Role> roles = getUserRoles(user.getId());
-        List<String> roleCodes = roles.stream()
-                .map(Role::getRoleCode)
+        return buildUserInfoDto(user, getUserRoleCodes(user.getId()));
+    }
+
+    /**
+     * Build UserInfoDto from the authenticated principal without querying the database
+     */
+    public UserInfoDto buildUserInfoDto(AuthenticatedUser principal) {
+        return UserInfoDto.builder()
+                .id(principal.getUserId())
+                .username(principal.getUsername())
+                .email(principal.getEmail())
+                .phone(principal.getPhone())
+                .nickname(principal.getNickname())
+                .avatar(principal.getAvatar())
+                .status(principal.getStatus())
+                .roles(principal.getRoleCodes())
+                .build();
+    }
+
+    /**
+     * Build UserInfoDto list, resolving roles of all users in one query
+     */
+    public List<UserInfoDto> buildUserInfoDtos(List<User> users) {
+        Map<Long, List<String>> roleCodes = getUserRoleCodes(users.stream()
+                .map(User::getId)
+                .collect(Collectors.toList()));
+
+        return users.stream()
+                .map(user -> buildUserInfoDto(user, roleCodes.getOrDefault(user.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
+    }
 
+    private UserInfoDto buildUserInfoDto(User user, List<String> roleCodes) {
         return UserInfoDto.builder()
                 .id(user.getId())
                 .username(user.getUsername())
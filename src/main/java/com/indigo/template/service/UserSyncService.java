@@ -0,0 +1,73 @@
+package com.indigo.template.service;
+
+import com.indigo.template.event.UserChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * User Sync Service
+ * Relays user changes between nodes over Redis pub/sub. A local UserChangedEvent is
+ * broadcast as "nodeId:username"; other nodes re-publish it as a remote UserChangedEvent,
+ * so their user details, JWT authentication and authority version caches evict the user too.
+ * A lost message leaves remote caches stale until their TTL elapses.
+ */
+@Slf4j
+@Service
+public class UserSyncService implements MessageListener {
+
+    private static final char MESSAGE_SEPARATOR = ':';
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public UserSyncService(StringRedisTemplate stringRedisTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           RedisMessageListenerContainer redisMessageListenerContainer,
+                           @Value("${security.user-sync.channel:user:changes}") String channel) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.channel = channel;
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Broadcast changes made on this node
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(channel, nodeId + MESSAGE_SEPARATOR + event.getUsername());
+        } catch (Exception e) {
+            // Other nodes still drop their cached entries once the cache TTLs elapse
+            log.warn("Failed to broadcast user change for {}: {}", event.getUsername(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String username = body.substring(separator + 1);
+        eventPublisher.publishEvent(new UserChangedEvent(username, true));
+        log.debug("Applied user change from remote node: {}", username);
+    }
+}
@@ -0,0 +1,5 @@
+-- Add authority version to user table
+-- Bumped whenever a user's roles or status change, so access tokens carrying
+-- embedded role codes can be detected as stale without loading the user
+ALTER TABLE `user`
+    ADD COLUMN `authority_version` INT NOT NULL DEFAULT 0 COMMENT '权限版本号' AFTER `status`;
@@ -0,0 +1,3 @@
+-- Per-key cache TTL override for config entries
+ALTER TABLE `config`
+    ADD COLUMN `ttl_seconds` INT DEFAULT NULL COMMENT '缓存过期时间(秒), 为空时使用默认值' AFTER `description`;
@@ -0,0 +1,110 @@
+package com.indigo.template.config;
+
+import com.indigo.template.controller.ApiHelloController;
+import com.indigo.template.security.handler.CustomAccessDeniedHandler;
+import com.indigo.template.security.handler.CustomAuthenticationEntryPoint;
+import com.indigo.template.security.jwt.JwtAuthenticationCache;
+import com.indigo.template.security.jwt.JwtTokenUtil;
+import com.indigo.template.security.password.PasswordHashExecutor;
+import com.indigo.template.service.AuthorityVersionService;
+import com.indigo.template.service.CachedUserDetailsService;
+import com.indigo.template.service.UserService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.session.data.redis.RedisSessionRepository;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that the stateless /api/** chain never reaches the Redis session store,
+ * even when the request carries a session cookie
+ */
+@WebMvcTest(controllers = ApiHelloController.class, properties = "security.password.bcrypt.strength=4")
+@Import({SecurityConfig.class, CustomAuthenticationEntryPoint.class, CustomAccessDeniedHandler.class,
+        JwtTokenUtil.class, ApiSecurityChainTest.RedisSessionConfig.class})
+class ApiSecurityChainTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @MockitoBean
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @MockitoBean
+    private CachedUserDetailsService cachedUserDetailsService;
+
+    @MockitoBean
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private AuthorityVersionService authorityVersionService;
+
+    @MockitoBean
+    private PasswordHashExecutor passwordHashExecutor;
+
+    @Test
+    void jwtRequestIssuesNoSessionCommands() throws Exception {
+        UserDetails user = User.withUsername("apiuser").password("").authorities("ROLE_USER").build();
+        given(cachedUserDetailsService.loadUserByUsername("apiuser")).willReturn(user);
+        String token = jwtTokenUtil.generateToken(user);
+
+        mockMvc.perform(get("/api/hello")
+                        .header("Authorization", "Bearer " + token)
+                        .cookie(new Cookie("SESSION", "c2Vzc2lvbi1pZA==")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.user").value("apiuser"))
+                .andExpect(header().doesNotExist("Set-Cookie"));
+
+        verifyNoInteractions(redisConnectionFactory);
+    }
+
+    @Test
+    void rejectedRequestIssuesNoSessionCommands() throws Exception {
+        mockMvc.perform(get("/api/hello")
+                        .cookie(new Cookie("SESSION", "c2Vzc2lvbi1pZA==")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist("Set-Cookie"));
+
+        verifyNoInteractions(redisConnectionFactory);
+    }
+
+    /**
+     * Redis-backed session filter in front of the security chains, as Spring Session registers it;
+     * any session lookup or write would go through the mocked connection factory
+     */
+    @TestConfiguration
+    static class RedisSessionConfig {
+
+        @Bean
+        SessionRepositoryFilter<?> springSessionRepositoryFilter(RedisConnectionFactory redisConnectionFactory) {
+            RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(redisConnectionFactory);
+            redisTemplate.afterPropertiesSet();
+            return new SessionRepositoryFilter<>(new RedisSessionRepository(redisTemplate));
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.indigo.template.security.session;
+
+import com.indigo.template.security.userdetails.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactSessionSerializerTest {
+
+    private final CompactSessionSerializer compact =
+            new CompactSessionSerializer(1024, getClass().getClassLoader());
+    private final JdkSerializationRedisSerializer jdk =
+            new JdkSerializationRedisSerializer(getClass().getClassLoader());
+
+    @Test
+    void roundTripsLoginSecurityContext() {
+        SecurityContext restored = (SecurityContext) compact.deserialize(
+                compact.serialize(SessionFixtures.loginSecurityContext()));
+
+        assertSameLogin(restored);
+    }
+
+    @Test
+    void readsValuesWrittenByJdkSerializer() {
+        SecurityContext restored = (SecurityContext) compact.deserialize(
+                jdk.serialize(SessionFixtures.loginSecurityContext()));
+
+        assertSameLogin(restored);
+        assertThat(compact.deserialize(jdk.serialize(1800))).isEqualTo(1800);
+    }
+
+    @Test
+    void writesLoginSessionInFewerBytesThanJdk() {
+        int compactBytes = 0;
+        int jdkBytes = 0;
+        for (Object value : SessionFixtures.loginSessionValues().values()) {
+            compactBytes += compact.serialize(value).length;
+            jdkBytes += jdk.serialize(value).length;
+        }
+
+        assertThat(compactBytes).isLessThan(jdkBytes / 2);
+    }
+
+    private static void assertSameLogin(SecurityContext context) {
+        Authentication authentication = context.getAuthentication();
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getAuthorities()).extracting("authority")
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(authentication.getDetails()).isInstanceOf(WebAuthenticationDetails.class)
+                .extracting("remoteAddress").isEqualTo("10.0.0.15");
+
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertThat(principal.getUserId()).isEqualTo(42L);
+        assertThat(principal.getUsername()).isEqualTo("admin");
+        assertThat(principal.getPassword()).isNull();
+        assertThat(principal.getEmail()).isEqualTo("admin@example.com");
+        assertThat(principal.getAuthorityVersion()).isEqualTo(3);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.indigo.template.security.session;
+
+import com.indigo.template.entity.User;
+import com.indigo.template.security.userdetails.AuthenticatedUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Session values as written to Redis after a session login
+ */
+final class SessionFixtures {
+
+    private SessionFixtures() {
+    }
+
+    static SecurityContext loginSecurityContext() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("admin");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuuYQ6l0t7Nw2m8iZB3yBqk1Wc7OJ5w1a");
+        user.setEmail("admin@example.com");
+        user.setNickname("Administrator");
+        user.setStatus(1);
+        user.setAuthorityVersion(3);
+        AuthenticatedUser principal = new AuthenticatedUser(user,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"));
+        principal.eraseCredentials();
+
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetails("10.0.0.15", null));
+        return new SecurityContextImpl(authentication);
+    }
+
+    /**
+     * Hash fields of one session key: metadata plus the security context attribute
+     */
+    static Map<String, Object> loginSessionValues() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("creationTime", now);
+        values.put("lastAccessedTime", now);
+        values.put("maxInactiveInterval", 1800);
+        values.put("sessionAttr:" + HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                loginSecurityContext());
+        return values;
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.indigo.template.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfigEntryExpiryTest {
+
+    private static final int SAMPLES = 1000;
+
+    @Test
+    void spreadsDefaultTtlWithinJitterBounds() {
+        ConfigEntryExpiry expiry = new ConfigEntryExpiry(Duration.ofHours(24), 0.1);
+
+        assertJitteredAround(expiry, new ConfigEntry("value", null), Duration.ofHours(24).toNanos(), 0.1);
+    }
+
+    @Test
+    void usesPerKeyTtlSecondsOverDefaultTtl() {
+        ConfigEntryExpiry expiry = new ConfigEntryExpiry(Duration.ofHours(24), 0.1);
+
+        assertJitteredAround(expiry, new ConfigEntry("value", 60), TimeUnit.SECONDS.toNanos(60), 0.1);
+    }
+
+    @Test
+    void fallsBackToDefaultTtlForNonPositiveTtlSeconds() {
+        ConfigEntryExpiry expiry = new ConfigEntryExpiry(Duration.ofMinutes(10), 0);
+
+        assertThat(expiry.expireAfterCreate("key", new ConfigEntry("value", 0), 0))
+                .isEqualTo(Duration.ofMinutes(10).toNanos());
+    }
+
+    @Test
+    void recomputesOnUpdateAndKeepsDurationOnRead() {
+        ConfigEntryExpiry expiry = new ConfigEntryExpiry(Duration.ofHours(24), 0);
+        ConfigEntry entry = new ConfigEntry("value", 60);
+
+        assertThat(expiry.expireAfterUpdate("key", entry, 0, 5)).isEqualTo(TimeUnit.SECONDS.toNanos(60));
+        assertThat(expiry.expireAfterRead("key", entry, 0, 5)).isEqualTo(5);
+    }
+
+    @Test
+    void rejectsJitterOutsideUnitInterval() {
+        assertThatThrownBy(() -> new ConfigEntryExpiry(Duration.ofHours(1), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ConfigEntryExpiry(Duration.ofHours(1), -0.1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertJitteredAround(ConfigEntryExpiry expiry, ConfigEntry entry,
+                                             long baseNanos, double jitter) {
+        long lower = (long) (baseNanos * (1 - jitter));
+        long upper = (long) (baseNanos * (1 + jitter));
+        Set<Long> distinct = new HashSet<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            long nanos = expiry.expireAfterCreate("key", entry, 0);
+            assertThat(nanos).isBetween(lower, upper);
+            distinct.add(nanos);
+        }
+        assertThat(distinct).hasSizeGreaterThan(SAMPLES / 2);
+    }
+}